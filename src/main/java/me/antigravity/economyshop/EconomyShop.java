@@ -10,9 +10,11 @@ import me.antigravity.economyshop.listener.NPCListener;
 import me.antigravity.economyshop.listener.ShopListener;
 import me.antigravity.economyshop.manager.ConfigManager;
 import me.antigravity.economyshop.manager.DatabaseManager;
+import me.antigravity.economyshop.manager.DiscountManager;
 import me.antigravity.economyshop.manager.EconomyManager;
 import me.antigravity.economyshop.manager.EditorManager;
 import me.antigravity.economyshop.manager.GUIManager;
+import me.antigravity.economyshop.manager.GlobalStockManager;
 import me.antigravity.economyshop.manager.LangManager;
 import me.antigravity.economyshop.manager.LimitManager;
 import me.antigravity.economyshop.manager.LogManager;
@@ -46,6 +48,14 @@ public class EconomyShop extends JavaPlugin {
     @Getter
     private LogManager logManager;
     @Getter
+    private GlobalStockManager globalStockManager;
+    @Getter
+    private DiscountManager discountManager;
+    @Getter
+    private me.antigravity.economyshop.task.PriceRestorationTask priceRestorationTask;
+    @Getter
+    private me.antigravity.economyshop.task.ShopFileWatcher shopFileWatcher;
+    @Getter
     private me.antigravity.economyshop.hook.OraxenHook oraxenHook;
     @Getter
     private me.antigravity.economyshop.hook.ItemsAdderHook itemsAdderHook;
@@ -75,11 +85,15 @@ public class EconomyShop extends JavaPlugin {
         this.editorManager = new EditorManager(this);
         this.databaseManager = new DatabaseManager(this);
         this.sellGUIManager = new SellGUIManager(this);
+        this.globalStockManager = new GlobalStockManager(this);
+        this.discountManager = new DiscountManager(this);
 
         // 데이터 로드
         // configManager.loadConfigs()는 위에서 이미 호출됨
         this.databaseManager.initialize(); // DB 연결
+        this.limitManager.loadOnlinePlayers(); // 리로드 시 접속 중인 플레이어의 구매 제한 로드
         this.shopManager.loadShops();
+        this.globalStockManager.loadFromDatabase();
 
         // API 초기화 및 등록
         this.api = new EconomyShopAPIImpl(this);
@@ -120,6 +134,9 @@ public class EconomyShop extends JavaPlugin {
         // GUI 자동 새로고침 태스크 시작
         new me.antigravity.economyshop.task.AutoRefreshTask(this).start();
 
+        // 상점 파일 핫 리로드 (선택)
+        startShopFileWatcher();
+
         getLogger().info("EconomyShop 플러그인이 활성화되었습니다!");
     }
 
@@ -131,9 +148,23 @@ public class EconomyShop extends JavaPlugin {
         double rate = configManager.getMainConfig().getDouble("price-restoration-rate", 0.05);
 
         if (interval > 0) {
-            me.antigravity.economyshop.task.PriceRestorationTask task = new me.antigravity.economyshop.task.PriceRestorationTask(
-                    this, rate);
-            task.start(interval);
+            this.priceRestorationTask = new me.antigravity.economyshop.task.PriceRestorationTask(this, rate);
+            this.priceRestorationTask.start(interval);
+        }
+    }
+
+    /**
+     * 상점 파일 감시를 시작합니다. (config.yml의 hot-reload.enabled가 true인 경우)
+     */
+    private void startShopFileWatcher() {
+        if (!configManager.getMainConfig().getBoolean("hot-reload.enabled", false))
+            return;
+
+        long debounce = configManager.getMainConfig().getLong("hot-reload.debounce", 500L);
+        me.antigravity.economyshop.task.ShopFileWatcher watcher = new me.antigravity.economyshop.task.ShopFileWatcher(
+                this, debounce);
+        if (watcher.start()) {
+            this.shopFileWatcher = watcher;
         }
     }
 
@@ -142,17 +173,27 @@ public class EconomyShop extends JavaPlugin {
         // API 등록 해제
         EconomyShopAPIProvider.unregister();
 
+        // 파일 감시 종료
+        if (this.shopFileWatcher != null) {
+            this.shopFileWatcher.stop();
+        }
+
+        // 가격 복구 스케줄러 종료
+        if (this.priceRestorationTask != null) {
+            this.priceRestorationTask.stop();
+        }
+
         // 필요 시 데이터 저장
         if (this.shopManager != null) {
             this.shopManager.saveShops();
         }
 
-        // DB 연결 종료
+        // DB 연결 종료 (write-behind 버퍼에 남은 변경 사항을 먼저 저장)
         if (this.databaseManager != null) {
             this.databaseManager.close();
         }
 
-        // Discord 웹훅 워커 스레드 종료
+        // 거래 저널 및 Discord 웹훅 워커 스레드 종료
         if (this.logManager != null) {
             this.logManager.shutdown();
         }
@@ -84,6 +84,7 @@ public class ShopBuilderImpl implements ShopBuilder {
 
         // 메모리에만 등록
         plugin.getShopManager().getSections().put(id, section);
+        plugin.getShopManager().markCatalogChanged();
         plugin.getLogger().info("상점 [" + id + "] 생성 완료 (메모리)");
         return true;
     }
@@ -115,6 +116,7 @@ public class ShopBuilderImpl implements ShopBuilder {
         // 메모리에 섹션 추가
         ShopSection section = createSection();
         plugin.getShopManager().getSections().put(id, section);
+        plugin.getShopManager().markCatalogChanged();
 
         // 추가 설정 저장 (permission, economy, ownerPlugin)
         if (permission != null) {
@@ -5,6 +5,9 @@ import me.antigravity.economyshop.model.ShopSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
 
 /**
  * 상점 거래가 성공적으로 완료된 후 호출되는 이벤트입니다.
@@ -29,6 +32,7 @@ public class ShopPostTransactionEvent extends Event {
     private final ShopPreTransactionEvent.TransactionType type;
     private final int amount;
     private final double price;
+    private final List<ShopTransactionLine> lines;
 
     /**
      * 거래 후 이벤트를 생성합니다.
@@ -48,6 +52,31 @@ public class ShopPostTransactionEvent extends Event {
         this.type = type;
         this.amount = amount;
         this.price = price;
+        this.lines = List.of(
+                new ShopTransactionLine(section, shopItem, amount, price, createStack(shopItem, amount)));
+    }
+
+    /**
+     * 여러 아이템을 한 번에 정산한 거래(일괄 판매 등)에 대한 이벤트를 생성합니다.
+     * getSection/getShopItem은 첫 번째 줄의 값을 반환합니다.
+     * 
+     * @param player 거래를 완료한 플레이어
+     * @param type   거래 유형 (구매/판매)
+     * @param lines  거래에 포함된 아이템 목록 (비어 있으면 안 됨)
+     * @param price  총 거래 금액
+     */
+    public ShopPostTransactionEvent(Player player, ShopPreTransactionEvent.TransactionType type,
+            List<ShopTransactionLine> lines, double price) {
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("lines must not be empty");
+        }
+        this.player = player;
+        this.section = lines.get(0).section();
+        this.shopItem = lines.get(0).item();
+        this.type = type;
+        this.amount = lines.stream().mapToInt(ShopTransactionLine::amount).sum();
+        this.price = price;
+        this.lines = List.copyOf(lines);
     }
 
     /**
@@ -92,6 +121,25 @@ public class ShopPostTransactionEvent extends Event {
         return price;
     }
 
+    /**
+     * 거래에 포함된 아이템 목록을 반환합니다. 단일 거래는 한 줄만 포함합니다.
+     */
+    public List<ShopTransactionLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * 단일 거래의 실제 아이템을 만듭니다. (거래 수량 반영)
+     */
+    private static ItemStack createStack(ShopItem shopItem, int amount) {
+        if (shopItem == null || shopItem.getItemStack() == null) {
+            return null;
+        }
+        ItemStack stack = shopItem.getItemStack().clone();
+        stack.setAmount(amount);
+        return stack;
+    }
+
     @Override
     public HandlerList getHandlers() {
         return HANDLERS;
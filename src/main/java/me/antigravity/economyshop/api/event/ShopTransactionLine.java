@@ -0,0 +1,29 @@
+package me.antigravity.economyshop.api.event;
+
+import me.antigravity.economyshop.model.ShopItem;
+import me.antigravity.economyshop.model.ShopSection;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 완료된 거래에 포함된 아이템 한 줄입니다. ({@link ShopPostTransactionEvent#getLines()})
+ *
+ * @param section 상점 섹션
+ * @param item    거래된 아이템
+ * @param amount  거래 수량
+ * @param price   이 줄의 총 금액
+ * @param stack   지급하거나 회수한 실제 아이템 (수량 반영, 조회할 때마다 복사본을 반환)
+ */
+public record ShopTransactionLine(ShopSection section, ShopItem item, int amount, double price, ItemStack stack) {
+
+    public ShopTransactionLine {
+        stack = stack != null ? stack.clone() : null;
+    }
+
+    /**
+     * 거래된 실제 아이템의 복사본을 반환합니다. 반환된 아이템을 수정해도 거래에는 영향이 없습니다.
+     */
+    @Override
+    public ItemStack stack() {
+        return stack != null ? stack.clone() : null;
+    }
+}
@@ -77,4 +77,15 @@ public interface ItemAdapter {
      * @return 이 어댑터로 처리 가능하면 true
      */
     boolean canHandle(ItemStack item);
+
+    /**
+     * 아이템의 플러그인 고유 ID를 반환합니다.
+     * 판매 인덱스에서 같은 Material의 아이템들을 빠르게 구분하는 데 사용됩니다.
+     * 
+     * @param item 확인할 ItemStack
+     * @return 고유 ID, 이 어댑터의 아이템이 아니면 null
+     */
+    default String getCustomId(ItemStack item) {
+        return null;
+    }
 }
@@ -21,7 +21,7 @@ public interface ItemRegistry {
 
     /**
      * 새로운 ItemAdapter를 등록합니다.
-     * 
+     *
      * @param adapter 등록할 ItemAdapter 구현체
      * @return 등록 성공 여부 (이미 같은 이름이 존재하면 false)
      */
@@ -29,7 +29,7 @@ public interface ItemRegistry {
 
     /**
      * 등록된 ItemAdapter를 제거합니다.
-     * 
+     *
      * @param name 어댑터 이름
      * @return 제거 성공 여부
      */
@@ -37,7 +37,7 @@ public interface ItemRegistry {
 
     /**
      * 이름으로 ItemAdapter를 조회합니다.
-     * 
+     *
      * @param name 어댑터 이름
      * @return ItemAdapter, 없으면 null
      */
@@ -46,7 +46,7 @@ public interface ItemRegistry {
     /**
      * 아이템에 적합한 ItemAdapter를 자동으로 찾습니다.
      * 등록된 어댑터 중 canHandle()이 true를 반환하는 첫 번째 어댑터를 반환합니다.
-     * 
+     *
      * @param item 확인할 ItemStack
      * @return 적합한 ItemAdapter, 없으면 기본 바닐라 어댑터
      */
@@ -54,14 +54,14 @@ public interface ItemRegistry {
 
     /**
      * 기본 바닐라 아이템 어댑터를 반환합니다.
-     * 
+     *
      * @return 기본 ItemAdapter
      */
     ItemAdapter getDefaultAdapter();
 
     /**
      * 등록된 모든 어댑터를 반환합니다.
-     * 
+     *
      * @return 어댑터 이름과 인스턴스의 맵 (읽기 전용)
      */
     Map<String, ItemAdapter> getAllAdapters();
@@ -69,7 +69,7 @@ public interface ItemRegistry {
     /**
      * 두 아이템이 같은 상품인지 비교합니다.
      * 적절한 어댑터를 자동으로 선택하여 비교합니다.
-     * 
+     *
      * @param shopItem   상점에 등록된 아이템
      * @param playerItem 플레이어가 가진 아이템
      * @return 같은 상품이면 true
@@ -78,11 +78,30 @@ public interface ItemRegistry {
 
     /**
      * 두 아이템이 같은 상품인지 특정 어댑터로 비교합니다.
-     * 
+     *
      * @param adapterName 사용할 어댑터 이름
      * @param shopItem    상점에 등록된 아이템
      * @param playerItem  플레이어가 가진 아이템
      * @return 같은 상품이면 true
      */
     boolean matches(String adapterName, ItemStack shopItem, ItemStack playerItem);
+
+    /**
+     * 아이템의 커스텀 아이템 키를 반환합니다.
+     * 기본(바닐라) 어댑터를 제외한 어댑터 중 ID를 돌려주는 첫 번째 어댑터를 사용합니다.
+     *
+     * @param item 확인할 ItemStack
+     * @return "어댑터이름:ID" 형식의 키, 커스텀 아이템이 아니면 null
+     */
+    String getCustomId(ItemStack item);
+
+    /**
+     * 아이템의 64비트 지문을 계산합니다. (Material, 커스텀 ID, 커스텀 모델 데이터, 메타 해시)
+     * {@link #matches(ItemStack, ItemStack)}가 true인 두 아이템은 항상 같은 지문을 가지므로,
+     * 지문이 같은 후보에 대해서만 전체 비교를 수행하면 됩니다.
+     *
+     * @param item 확인할 ItemStack
+     * @return 지문 값, item이 null이면 0
+     */
+    long fingerprint(ItemStack item);
 }
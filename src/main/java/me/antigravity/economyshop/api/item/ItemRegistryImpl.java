@@ -131,4 +131,72 @@ public class ItemRegistryImpl implements ItemRegistry {
         ItemAdapter adapter = getAdapter(adapterName);
         return adapter.matches(shopItem, playerItem);
     }
+
+    @Override
+    public String getCustomId(ItemStack item) {
+        if (item == null || !item.hasItemMeta()) {
+            return null;
+        }
+
+        for (ItemAdapter adapter : adapters.values()) {
+            if (adapter == defaultAdapter || !adapter.isAvailable()) {
+                continue;
+            }
+            String id = adapter.getCustomId(item);
+            if (id != null) {
+                return adapter.getName() + ":" + id;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long fingerprint(ItemStack item) {
+        if (item == null) {
+            return 0L;
+        }
+
+        // 커스텀 아이템은 어댑터가 ID로만 비교하므로 ID만으로 지문을 만듦
+        String customId = getCustomId(item);
+        if (customId != null) {
+            return nonZero(mix(hashString(customId) ^ 0x6A09E667F3BCC909L));
+        }
+
+        // 바닐라 아이템은 isSimilar()와 같은 기준 (Material + 메타)
+        long hash = mix(item.getType().ordinal() + 1L);
+        if (item.hasItemMeta()) {
+            org.bukkit.inventory.meta.ItemMeta meta = item.getItemMeta();
+            if (meta != null) {
+                int modelData = meta.hasCustomModelData() ? meta.getCustomModelData() : 0;
+                hash = mix(hash ^ (((long) modelData << 32) | (meta.hashCode() & 0xFFFFFFFFL)));
+            }
+        }
+        return nonZero(hash);
+    }
+
+    /**
+     * 64비트 FNV-1a 문자열 해시
+     */
+    private static long hashString(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 비트를 고르게 섞습니다. (SplitMix64 finalizer)
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 0은 '계산되지 않음'을 뜻하므로 사용하지 않음
+    private static long nonZero(long hash) {
+        return hash == 0L ? 1L : hash;
+    }
 }
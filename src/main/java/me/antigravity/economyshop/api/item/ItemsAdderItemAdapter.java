@@ -97,6 +97,11 @@ public class ItemsAdderItemAdapter implements ItemAdapter {
         return getItemsAdderId(item) != null;
     }
 
+    @Override
+    public String getCustomId(ItemStack item) {
+        return available ? getItemsAdderId(item) : null;
+    }
+
     /**
      * 아이템에서 ItemsAdder ID를 추출합니다.
      * 
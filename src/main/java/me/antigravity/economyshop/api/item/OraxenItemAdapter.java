@@ -97,6 +97,11 @@ public class OraxenItemAdapter implements ItemAdapter {
         return getOraxenId(item) != null;
     }
 
+    @Override
+    public String getCustomId(ItemStack item) {
+        return available ? getOraxenId(item) : null;
+    }
+
     /**
      * 아이템에서 Oraxen ID를 추출합니다.
      * 
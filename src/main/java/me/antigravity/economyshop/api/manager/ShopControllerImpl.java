@@ -57,7 +57,7 @@ public class ShopControllerImpl implements ShopController {
                 .build();
 
         // 메모리에 추가
-        section.getItems().add(shopItem);
+        section.addItem(shopItem);
 
         // 파일에 저장
         plugin.getShopManager().saveShopItem(section, shopItem);
@@ -141,16 +141,7 @@ public class ShopControllerImpl implements ShopController {
      * 다음 빈 슬롯을 찾습니다.
      */
     private int findNextEmptySlot() {
-        int slot = 0;
-        while (true) {
-            final int checkSlot = slot;
-            boolean occupied = section.getItems().stream()
-                    .anyMatch(item -> item.getSlot() == checkSlot);
-            if (!occupied) {
-                return slot;
-            }
-            slot++;
-        }
+        return section.nextEmptySlot();
     }
 
     /**
@@ -47,6 +47,7 @@ public class ShopManagerAPIImpl implements ShopManagerAPI {
 
         // 메모리에 등록
         plugin.getShopManager().getSections().put(section.getId(), section);
+        plugin.getShopManager().markCatalogChanged();
 
         // 영구 저장
         if (persistent) {
@@ -72,6 +73,7 @@ public class ShopManagerAPIImpl implements ShopManagerAPI {
         if (removed == null) {
             return false;
         }
+        plugin.getShopManager().markCatalogChanged();
 
         if (deleteFile) {
             // sections.yml에서 제거
@@ -131,7 +131,8 @@ public class EditShopCommand implements CommandExecutor, TabCompleter {
                 .build();
 
         // 메모리에 추가
-        section.getItems().add(newItem);
+        section.addItem(newItem);
+        plugin.getShopManager().getSellIndex().add(section, newItem);
 
         // YAML 파일에 저장
         boolean saved = ItemSerializer.saveItemToSection(plugin, section, newItem);
@@ -197,7 +198,10 @@ public class EditShopCommand implements CommandExecutor, TabCompleter {
      * 설정을 리로드합니다.
      */
     private void handleReload(Player player) {
+        // 아직 저장 대기 중인 편집 내용을 먼저 기록한 뒤 파일을 다시 읽음
+        plugin.getShopManager().getFileWriter().flushAll();
         plugin.getConfigManager().loadConfigs();
+        plugin.getDiscountManager().reload();
         plugin.getShopManager().loadShops();
         player.sendMessage("§a[EconomyShop] 설정이 리로드되었습니다.");
     }
@@ -211,13 +215,7 @@ public class EditShopCommand implements CommandExecutor, TabCompleter {
     }
 
     private int findNextAvailableSlot(ShopSection section) {
-        int maxSlot = -1;
-        for (ShopItem item : section.getItems()) {
-            if (item.getSlot() > maxSlot) {
-                maxSlot = item.getSlot();
-            }
-        }
-        return maxSlot + 1;
+        return section.getLastSlot() + 1;
     }
 
     @Nullable
@@ -82,6 +82,11 @@ public class ShopCommand implements CommandExecutor, TabCompleter {
                 for (String log : logs) {
                     player.sendMessage("§7" + log);
                 }
+                me.antigravity.economyshop.hook.DiscordHook discord = plugin.getLogManager().getDiscordHook();
+                if (discord != null && discord.isEnabled()) {
+                    player.sendMessage("§8Discord 대기열: " + discord.getQueueDepth() + "건 | 누락: "
+                            + discord.getDroppedCount() + "건");
+                }
                 player.sendMessage("§6==============================");
             });
             return true;
@@ -23,6 +23,14 @@ public interface EconomyProvider {
      */
     double getBalance(Player player);
 
+    /**
+     * 읽기 전용 호출(Placeholder 등)을 위한 잔액을 반환합니다.
+     * 구현체는 짧은 시간 동안 캐시된 값을 반환할 수 있으므로, 거래 판단에는 {@link #getBalance(Player)}를 사용해야 합니다.
+     */
+    default double getCachedBalance(Player player) {
+        return getBalance(player);
+    }
+
     /**
      * 플레이어로부터 금액을 차감합니다.
      * 
@@ -1,17 +1,24 @@
 package me.antigravity.economyshop.economy;
 
 import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.api.EconomyShopAPI;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 
 /**
  * 특정 아이템을 화폐로 사용하는 Provider 구현체입니다.
  * 예: 에메랄드, 금괴, 네더의 별 등을 화폐로 사용할 수 있습니다.
+ *
+ * 화폐 아이템에 커스텀 모델 데이터나 이름이 지정된 경우 ItemRegistry를 통해 비교하며,
+ * 출금은 인벤토리를 한 번만 순회하면서 개수 확인과 차감을 함께 처리합니다.
  */
 public class ItemEconomyProvider implements EconomyProvider {
 
+    private final String currencyId;
     private final Material currencyMaterial;
+    private final ItemStack template; // null이면 Material만 비교
     private final String currencyName;
 
     /**
@@ -21,7 +28,23 @@ public class ItemEconomyProvider implements EconomyProvider {
      */
     public ItemEconomyProvider(EconomyShop plugin, Material currencyMaterial, String currencyName) {
         // plugin is unused but kept for API compatibility
+        this.currencyId = currencyMaterial.name();
         this.currencyMaterial = currencyMaterial;
+        this.template = null;
+        this.currencyName = currencyName;
+    }
+
+    /**
+     * 커스텀 아이템을 화폐로 사용하는 생성자
+     *
+     * @param currencyId   화폐 ID (Provider 이름은 "Item:<ID>")
+     * @param template     화폐 아이템 (커스텀 모델 데이터, 이름 등 포함)
+     * @param currencyName 화폐 이름
+     */
+    public ItemEconomyProvider(EconomyShop plugin, String currencyId, ItemStack template, String currencyName) {
+        this.currencyId = currencyId;
+        this.currencyMaterial = template.getType();
+        this.template = template.hasItemMeta() ? template.clone() : null;
         this.currencyName = currencyName;
     }
 
@@ -34,7 +57,7 @@ public class ItemEconomyProvider implements EconomyProvider {
 
     @Override
     public String getName() {
-        return "Item:" + currencyMaterial.name();
+        return "Item:" + currencyId;
     }
 
     @Override
@@ -44,46 +67,87 @@ public class ItemEconomyProvider implements EconomyProvider {
 
     @Override
     public double getBalance(Player player) {
+        return count(player, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean has(Player player, double amount) {
+        int required = (int) amount;
+        return count(player, required) >= required;
+    }
+
+    /**
+     * 화폐 개수를 셉니다. limit에 도달하면 더 세지 않고 중단합니다.
+     */
+    private int count(Player player, int limit) {
         int count = 0;
         for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == currencyMaterial) {
+            if (isCurrency(item)) {
                 count += item.getAmount();
+                if (count >= limit) {
+                    break;
+                }
             }
         }
         return count;
     }
 
+    /**
+     * 인벤토리를 한 번 순회하며 화폐를 차감합니다.
+     * 끝까지 순회해도 금액이 부족하면 변경한 슬롯을 원래대로 되돌리고 false를 반환합니다.
+     */
     @Override
     public boolean withdraw(Player player, double amount) {
         int toRemove = (int) amount;
-        if (getBalance(player) < toRemove)
-            return false;
+        if (toRemove <= 0)
+            return true;
+
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] contents = inventory.getContents();
+
+        // 되돌리기용 스냅샷 (비운 슬롯과 원래 아이템)
+        // 수량만 줄이는 경우는 바로 성공하므로 되돌릴 일이 없고, 비운 슬롯의 아이템은 변경되지 않아 복제하지 않음
+        int[] touchedSlots = new int[contents.length];
+        ItemStack[] originals = new ItemStack[contents.length];
+        int touched = 0;
 
-        ItemStack[] contents = player.getInventory().getContents();
-        for (int i = 0; i < contents.length && toRemove > 0; i++) {
+        for (int i = 0; i < contents.length; i++) {
             ItemStack item = contents[i];
-            if (item != null && item.getType() == currencyMaterial) {
-                int itemAmount = item.getAmount();
-                if (itemAmount <= toRemove) {
-                    toRemove -= itemAmount;
-                    player.getInventory().setItem(i, null);
-                } else {
-                    item.setAmount(itemAmount - toRemove);
-                    toRemove = 0;
-                }
+            if (!isCurrency(item))
+                continue;
+
+            int itemAmount = item.getAmount();
+            if (itemAmount <= toRemove) {
+                touchedSlots[touched] = i;
+                originals[touched++] = item;
+                toRemove -= itemAmount;
+                inventory.setItem(i, null);
+            } else {
+                item.setAmount(itemAmount - toRemove);
+                inventory.setItem(i, item);
+                toRemove = 0;
             }
+
+            if (toRemove == 0)
+                return true;
         }
 
-        player.updateInventory();
-        return toRemove == 0;
+        // 잔액 부족: 차감한 아이템 복구
+        for (int k = 0; k < touched; k++) {
+            inventory.setItem(touchedSlots[k], originals[k]);
+        }
+        return false;
     }
 
     @Override
     public boolean deposit(Player player, double amount) {
         int toGive = (int) amount;
+        if (toGive <= 0)
+            return true;
 
         // 인벤토리에 아이템 추가
-        ItemStack currency = new ItemStack(currencyMaterial, toGive);
+        ItemStack currency = template != null ? template.clone() : new ItemStack(currencyMaterial);
+        currency.setAmount(toGive);
         java.util.HashMap<Integer, ItemStack> overflow = player.getInventory().addItem(currency);
 
         // 인벤토리가 가득 찬 경우 바닥에 드랍
@@ -92,11 +156,22 @@ public class ItemEconomyProvider implements EconomyProvider {
                 player.getWorld().dropItemNaturally(player.getLocation(), item);
             }
         }
-
-        player.updateInventory();
         return true;
     }
 
+    /**
+     * 아이템이 이 화폐인지 확인합니다. Material이 다르면 바로 false를 반환합니다.
+     */
+    private boolean isCurrency(ItemStack item) {
+        if (item == null || item.getType() != currencyMaterial)
+            return false;
+        if (template == null)
+            return true;
+
+        EconomyShopAPI api = EconomyShopAPI.getInstance();
+        return api != null ? api.getItemRegistry().matches(template, item) : template.isSimilar(item);
+    }
+
     @Override
     public String formatAmount(double amount) {
         return String.format("%,d %s", (int) amount, currencyName);
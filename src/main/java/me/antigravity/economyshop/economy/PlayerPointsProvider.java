@@ -3,16 +3,36 @@ package me.antigravity.economyshop.economy;
 import me.antigravity.economyshop.EconomyShop;
 import org.bukkit.entity.Player;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * PlayerPoints 플러그인을 위한 Provider 구현체입니다.
  * PlayerPoints가 설치되지 않은 경우에도 플러그인이 작동하도록 soft dependency로 처리합니다.
+ *
+ * API 메서드는 시작 시 한 번만 찾아 PlayerPointsAPI 인스턴스에 바인딩된 MethodHandle로 보관합니다.
+ * Placeholder 등 읽기 전용 호출을 위해 짧은 시간 동안 잔액을 캐시하며, 출금/입금 시 무효화합니다.
  */
 public class PlayerPointsProvider implements EconomyProvider {
 
+    // 읽기 전용 잔액 캐시 유지 시간
+    private static final long BALANCE_CACHE_TTL_MILLIS = 1000L;
+    private static final int MAX_CACHED_BALANCES = 1024;
+
     private final EconomyShop plugin;
-    private Object playerPointsAPI; // PlayerPointsAPI 타입을 직접 참조하지 않음 (soft dependency)
     private boolean available = false;
 
+    // PlayerPointsAPI 인스턴스에 바인딩된 핸들 (PlayerPointsAPI 타입을 직접 참조하지 않음)
+    private MethodHandle lookHandle; // (UUID) -> int
+    private MethodHandle takeHandle; // (UUID, int) -> boolean
+    private MethodHandle giveHandle; // (UUID, int) -> boolean
+
+    private final Map<UUID, CachedBalance> balanceCache = new ConcurrentHashMap<>();
+
     public PlayerPointsProvider(EconomyShop plugin) {
         this.plugin = plugin;
         setupPlayerPoints();
@@ -25,17 +45,26 @@ public class PlayerPointsProvider implements EconomyProvider {
         }
 
         try {
-            // Reflection을 사용하여 PlayerPoints API에 접근 (soft dependency)
-            Class<?> playerPointsClass = Class.forName("org.black_iern.playerpoints.PlayerPoints");
+            // soft dependency이므로 클래스를 이름으로 찾아 MethodHandle로 연결
+            Class<?> playerPointsClass = Class.forName("org.black_ixx.playerpoints.PlayerPoints");
             Object playerPoints = plugin.getServer().getPluginManager().getPlugin("PlayerPoints");
 
             if (playerPoints != null) {
-                java.lang.reflect.Method getAPIMethod = playerPointsClass.getMethod("getAPI");
-                playerPointsAPI = getAPIMethod.invoke(playerPoints);
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Object playerPointsAPI = playerPointsClass.getMethod("getAPI").invoke(playerPoints);
+                Class<?> apiClass = playerPointsAPI.getClass();
+
+                lookHandle = lookup.findVirtual(apiClass, "look", MethodType.methodType(int.class, UUID.class))
+                        .bindTo(playerPointsAPI);
+                takeHandle = lookup.findVirtual(apiClass, "take",
+                        MethodType.methodType(boolean.class, UUID.class, int.class)).bindTo(playerPointsAPI);
+                giveHandle = lookup.findVirtual(apiClass, "give",
+                        MethodType.methodType(boolean.class, UUID.class, int.class)).bindTo(playerPointsAPI);
+
                 available = true;
                 plugin.getLogger().info("PlayerPoints 연동이 활성화되었습니다.");
             }
-        } catch (Exception e) {
+        } catch (Throwable e) {
             plugin.getLogger().warning("PlayerPoints API 연동 중 오류 발생: " + e.getMessage());
         }
     }
@@ -47,31 +76,48 @@ public class PlayerPointsProvider implements EconomyProvider {
 
     @Override
     public boolean isAvailable() {
-        return available && playerPointsAPI != null;
+        return available;
     }
 
     @Override
     public double getBalance(Player player) {
         if (!isAvailable())
             return 0;
+        UUID uuid = player.getUniqueId();
         try {
-            java.lang.reflect.Method lookMethod = playerPointsAPI.getClass().getMethod("look", java.util.UUID.class);
-            return (int) lookMethod.invoke(playerPointsAPI, player.getUniqueId());
-        } catch (Exception e) {
+            int balance = (int) lookHandle.invokeExact(uuid);
+            cacheBalance(uuid, balance);
+            return balance;
+        } catch (Throwable e) {
             return 0;
         }
     }
 
+    /**
+     * 최근 조회한 잔액을 반환합니다. 캐시가 없거나 만료되었으면 새로 조회합니다.
+     */
+    @Override
+    public double getCachedBalance(Player player) {
+        if (!isAvailable())
+            return 0;
+        CachedBalance cached = balanceCache.get(player.getUniqueId());
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.balance();
+        }
+        return getBalance(player);
+    }
+
     @Override
     public boolean withdraw(Player player, double amount) {
         if (!isAvailable())
             return false;
+        UUID uuid = player.getUniqueId();
         try {
-            java.lang.reflect.Method takeMethod = playerPointsAPI.getClass().getMethod("take", java.util.UUID.class,
-                    int.class);
-            return (boolean) takeMethod.invoke(playerPointsAPI, player.getUniqueId(), (int) amount);
-        } catch (Exception e) {
+            return (boolean) takeHandle.invokeExact(uuid, (int) amount);
+        } catch (Throwable e) {
             return false;
+        } finally {
+            balanceCache.remove(uuid);
         }
     }
 
@@ -79,13 +125,22 @@ public class PlayerPointsProvider implements EconomyProvider {
     public boolean deposit(Player player, double amount) {
         if (!isAvailable())
             return false;
+        UUID uuid = player.getUniqueId();
         try {
-            java.lang.reflect.Method giveMethod = playerPointsAPI.getClass().getMethod("give", java.util.UUID.class,
-                    int.class);
-            return (boolean) giveMethod.invoke(playerPointsAPI, player.getUniqueId(), (int) amount);
-        } catch (Exception e) {
+            return (boolean) giveHandle.invokeExact(uuid, (int) amount);
+        } catch (Throwable e) {
             return false;
+        } finally {
+            balanceCache.remove(uuid);
+        }
+    }
+
+    private void cacheBalance(UUID uuid, int balance) {
+        if (balanceCache.size() >= MAX_CACHED_BALANCES) {
+            // 퇴장한 플레이어의 항목이 쌓이지 않도록 가득 차면 비움
+            balanceCache.clear();
         }
+        balanceCache.put(uuid, new CachedBalance(balance, System.currentTimeMillis() + BALANCE_CACHE_TTL_MILLIS));
     }
 
     @Override
@@ -97,4 +152,7 @@ public class PlayerPointsProvider implements EconomyProvider {
     public String getCurrencyName() {
         return "포인트";
     }
+
+    private record CachedBalance(int balance, long expiresAt) {
+    }
 }
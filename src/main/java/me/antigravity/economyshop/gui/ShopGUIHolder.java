@@ -2,6 +2,7 @@ package me.antigravity.economyshop.gui;
 
 import lombok.Getter;
 import lombok.Setter;
+import me.antigravity.economyshop.model.ShopItem;
 import me.antigravity.economyshop.model.ShopSection;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
@@ -20,10 +21,40 @@ public class ShopGUIHolder implements InventoryHolder {
     @Setter
     private Inventory inventory;
 
+    // 마지막으로 그린 상태 (슬롯별 아이템과 버전)
+    private final ShopItem[] renderedItems = new ShopItem[45];
+    private final int[] renderedVersions = new int[45];
+
+    @Getter
+    @Setter
+    private int renderedPage = -1;
+
+    @Getter
+    @Setter
+    private int renderedStructureVersion = -1;
+
     public ShopGUIHolder(ShopSection section) {
         this.section = section;
     }
 
+    /**
+     * 슬롯에 현재 그려진 내용이 주어진 아이템의 최신 상태와 같은지 확인합니다.
+     */
+    public boolean isRendered(int slot, ShopItem item) {
+        if (renderedItems[slot] != item) {
+            return false;
+        }
+        return item == null || renderedVersions[slot] == item.getVersion();
+    }
+
+    /**
+     * 슬롯에 그린 아이템과 그 버전을 기록합니다.
+     */
+    public void markRendered(int slot, ShopItem item) {
+        renderedItems[slot] = item;
+        renderedVersions[slot] = item != null ? item.getVersion() : 0;
+    }
+
     @Override
     public @NotNull Inventory getInventory() {
         return inventory;
@@ -3,50 +3,99 @@ package me.antigravity.economyshop.hook;
 import me.antigravity.economyshop.EconomyShop;
 import me.antigravity.economyshop.util.DiscordWebhook;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Discord 웹훅 통합 클래스
  * 비동기 큐 패턴을 사용하여 거래 로그를 Discord로 전송합니다.
  * DiscordSRV 플러그인에 의존하지 않고 직접 웹훅을 사용합니다.
+ *
+ * 워커 스레드는 병합 대기 시간 동안 쌓인 거래를 (플레이어, 행동, 아이템) 기준으로 합친 뒤
+ * 요청당 최대 10개의 Embed로 묶어 전송하고, Discord의 Rate Limit 헤더에 맞춰 전송 간격을 조절합니다.
+ * 큐가 가득 차면 새 로그는 버리고, 버린 건수는 다음 전송 때 요약 Embed로 알립니다.
  */
 public class DiscordHook {
 
+    private static final int MAX_RATE_LIMIT_RETRIES = 3;
+
     private final EconomyShop plugin;
     private DiscordWebhook webhook;
-    private final BlockingQueue<LogMessage> messageQueue;
+    private BlockingQueue<LogMessage> messageQueue;
     private Thread workerThread;
     private volatile boolean running = false;
+    private long mergeWindowMs;
+
+    // 큐가 가득 차 버려진 로그 수 (누적 / 아직 요약을 보내지 않은 수)
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong unreportedDrops = new AtomicLong();
+    private final AtomicLong sentRequests = new AtomicLong();
+
+    // Rate Limit으로 인해 다음 요청을 보낼 수 있는 시각 (워커 스레드 전용)
+    private long nextRequestAt;
+
+    // 워커가 큐에서 꺼내 병합 중이거나 전송 중인 로그 (전송을 마친 로그는 제거됨)
+    // 종료로 워커가 중단되면 shutdown()이 남은 로그를 이어서 전송합니다.
+    private Map<MergeKey, MergedLog> inFlight = new LinkedHashMap<>();
 
     public DiscordHook(EconomyShop plugin) {
         this.plugin = plugin;
-        this.messageQueue = new LinkedBlockingQueue<>();
         setup();
     }
 
+    /**
+     * 지정한 웹훅 주소로 바로 연동합니다. (로컬 HTTP 서버를 대상으로 한 점검용)
+     */
+    public DiscordHook(EconomyShop plugin, String webhookUrl, int queueCapacity, long mergeWindowMs) {
+        this.plugin = plugin;
+        start(webhookUrl, queueCapacity, mergeWindowMs);
+    }
+
     private void setup() {
-        String webhookUrl = plugin.getConfigManager().getMainConfig().getString("discord-webhook-url", "");
+        org.bukkit.configuration.file.FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        String webhookUrl = config.getString("discord-webhook-url", "");
 
         if (webhookUrl == null || webhookUrl.isEmpty()) {
             plugin.getLogger().info("Discord 웹훅 URL이 설정되지 않았습니다. Discord 연동이 비활성화됩니다.");
             return;
         }
 
-        this.webhook = new DiscordWebhook(webhookUrl);
+        if (start(webhookUrl,
+                config.getInt("discord-webhook.queue-capacity", 1000),
+                config.getLong("discord-webhook.merge-window", 2000))) {
+            plugin.getLogger().info("Discord 웹훅 연동이 활성화되었습니다.");
+        }
+    }
+
+    private boolean start(String webhookUrl, int queueCapacity, long mergeWindowMs) {
+        DiscordWebhook created = new DiscordWebhook(webhookUrl, plugin.getLogger());
+        if (!created.isValid()) {
+            plugin.getLogger().info("Discord 연동이 비활성화됩니다.");
+            return false;
+        }
+        this.webhook = created;
+        this.messageQueue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.mergeWindowMs = Math.max(0, mergeWindowMs);
         this.running = true;
 
         // 생산자-소비자 패턴: 워커 스레드 시작
         workerThread = new Thread(this::processQueue, "EconomyShop-DiscordWorker");
         workerThread.setDaemon(true);
         workerThread.start();
-
-        plugin.getLogger().info("Discord 웹훅 연동이 활성화되었습니다.");
+        return true;
     }
 
     /**
      * 거래 로그를 Discord로 전송합니다 (비동기).
-     * 
+     * 큐가 가득 찬 경우 로그를 버리고 버린 건수만 기록합니다.
+     *
      * @param playerName 플레이어 이름
      * @param action     행동 (BUY, SELL, SELLALL)
      * @param itemId     아이템 ID
@@ -57,8 +106,11 @@ public class DiscordHook {
         if (webhook == null || !running)
             return;
 
-        LogMessage message = new LogMessage(playerName, action, itemId, amount, price);
-        messageQueue.offer(message);
+        LogMessage message = new LogMessage(playerName, action, itemId, amount, price, Instant.now());
+        if (!messageQueue.offer(message)) {
+            droppedCount.incrementAndGet();
+            unreportedDrops.incrementAndGet();
+        }
     }
 
     /**
@@ -68,50 +120,194 @@ public class DiscordHook {
         if (webhook == null || !running)
             return;
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            webhook.sendMessage(content);
-        });
+        // 공유 HTTP 클라이언트가 비동기로 전송하므로 별도의 작업 스레드가 필요 없음
+        webhook.sendMessage(content);
     }
 
     /**
-     * 큐에서 메시지를 꺼내 처리하는 워커 스레드
+     * 웹훅이 설정되어 전송 중인지 여부
+     */
+    public boolean isEnabled() {
+        return webhook != null && running;
+    }
+
+    /**
+     * 전송 대기 중인 로그 수
+     */
+    public int getQueueDepth() {
+        return messageQueue == null ? 0 : messageQueue.size();
+    }
+
+    /**
+     * 큐가 가득 차 버려진 로그의 누적 수
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 전송한 웹훅 요청 수
+     */
+    public long getSentRequestCount() {
+        return sentRequests.get();
+    }
+
+    /**
+     * 큐에서 메시지를 꺼내 병합한 뒤 묶음으로 전송하는 워커 스레드
      */
     private void processQueue() {
         while (running) {
             try {
-                LogMessage message = messageQueue.take(); // 블로킹 대기
-                sendToDiscord(message);
+                LogMessage first = messageQueue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (unreportedDrops.get() > 0) {
+                        deliver(new LinkedHashMap<>(), true);
+                    }
+                    continue;
+                }
+
+                Map<MergeKey, MergedLog> merged = new LinkedHashMap<>();
+                inFlight = merged;
+                merge(merged, first);
+
+                // 병합 대기 시간 동안 들어오는 로그를 모아서 합침
+                long deadline = System.currentTimeMillis() + mergeWindowMs;
+                long remaining;
+                while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+                    LogMessage next = messageQueue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null)
+                        break;
+                    merge(merged, next);
+                }
+                drainInto(merged);
 
-                // API Rate Limit 방지를 위한 짧은 대기
-                Thread.sleep(100);
+                deliver(merged, true);
             } catch (InterruptedException e) {
+                // 종료 요청: 아직 전송하지 못한 로그는 inFlight에 남아 shutdown()에서 전송됨
                 Thread.currentThread().interrupt();
                 break;
             }
         }
     }
 
+    private void drainInto(Map<MergeKey, MergedLog> merged) {
+        List<LogMessage> pending = new ArrayList<>();
+        messageQueue.drainTo(pending);
+        for (LogMessage message : pending) {
+            merge(merged, message);
+        }
+    }
+
+    private void merge(Map<MergeKey, MergedLog> merged, LogMessage message) {
+        MergeKey key = new MergeKey(message.playerName, message.action.toUpperCase(), message.itemId);
+        MergedLog log = merged.get(key);
+        if (log == null) {
+            merged.put(key, new MergedLog(message));
+        } else {
+            log.add(message);
+        }
+    }
+
     /**
-     * Discord 웹훅으로 Embed 메시지 전송
+     * 병합된 로그를 10개씩 나누어 전송합니다. 버려진 로그가 있으면 요약 Embed를 덧붙입니다.
+     *
+     * @param respectRateLimit false이면 Rate Limit 대기 없이 한 번씩만 시도합니다. (종료 시)
      */
-    private void sendToDiscord(LogMessage message) {
+    private void deliver(Map<MergeKey, MergedLog> merged, boolean respectRateLimit) throws InterruptedException {
+        List<MergeKey> keys = new ArrayList<>(merged.keySet());
+        List<DiscordWebhook.Embed> embeds = new ArrayList<>(merged.size() + 1);
+        for (MergedLog log : merged.values()) {
+            embeds.add(toEmbed(log));
+        }
+
+        long drops = unreportedDrops.getAndSet(0);
+        if (drops > 0) {
+            embeds.add(new DiscordWebhook.Embed("⚠ 거래 로그 누락",
+                    String.format("전송 대기열이 가득 차 거래 로그 %d건이 전송되지 않았습니다. (누적 %d건)",
+                            drops, droppedCount.get()),
+                    0xFFAA00, Instant.now()));
+            plugin.getLogger().warning("Discord 전송 대기열이 가득 차 거래 로그 " + drops + "건을 버렸습니다.");
+        }
+
+        boolean dropsReported = drops == 0;
         try {
-            String title = "🛒 " + getActionEmoji(message.action) + " " + getActionName(message.action);
-            String description = String.format("플레이어 **%s**님이 아이템을 %s했습니다.",
-                    message.playerName, getActionVerb(message.action));
-
-            int color = getActionColor(message.action);
-
-            webhook.sendEmbed(
-                    title,
-                    description,
-                    color,
-                    "아이템", message.itemId,
-                    "수량", String.valueOf(message.amount),
-                    "가격", String.format("%.2f원", message.price));
-        } catch (Exception e) {
-            plugin.getLogger().warning("Discord 웹훅 전송 실패: " + e.getMessage());
+            for (int from = 0; from < embeds.size(); from += DiscordWebhook.MAX_EMBEDS) {
+                int to = Math.min(embeds.size(), from + DiscordWebhook.MAX_EMBEDS);
+                send(embeds.subList(from, to), respectRateLimit);
+
+                // 전송을 마친 로그는 제거 (중단되면 남은 로그만 다시 전송)
+                for (int i = from; i < Math.min(to, keys.size()); i++) {
+                    merged.remove(keys.get(i));
+                }
+                if (to > keys.size()) {
+                    dropsReported = true;
+                }
+            }
+        } finally {
+            if (!dropsReported) {
+                unreportedDrops.addAndGet(drops);
+            }
+        }
+    }
+
+    private void send(List<DiscordWebhook.Embed> chunk, boolean respectRateLimit) throws InterruptedException {
+        for (int attempt = 0; attempt <= MAX_RATE_LIMIT_RETRIES; attempt++) {
+            if (respectRateLimit) {
+                long wait = nextRequestAt - System.currentTimeMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+            }
+
+            DiscordWebhook.Response response;
+            try {
+                response = webhook.sendEmbeds(chunk);
+            } catch (InterruptedException e) {
+                throw e; // 종료: 이 묶음은 진행 중 목록에 남아 shutdown()에서 다시 전송
+            } catch (Exception e) {
+                plugin.getLogger().warning("Discord 웹훅 전송 실패: " + e.getMessage());
+                return;
+            }
+            sentRequests.incrementAndGet();
+
+            long now = System.currentTimeMillis();
+            if (response.isRateLimited()) {
+                // 429: Retry-After 만큼 기다린 후 같은 묶음을 다시 전송
+                long retryAfter = Math.max(response.retryAfterMs(), response.resetAfterMs());
+                nextRequestAt = now + Math.max(retryAfter, 1000);
+                if (!respectRateLimit)
+                    return;
+                continue;
+            }
+
+            if (response.remaining() == 0) {
+                // 버킷을 모두 사용했으면 초기화될 때까지 다음 요청을 미룸
+                nextRequestAt = now + response.resetAfterMs();
+            }
+            return;
         }
+        plugin.getLogger().warning("Discord Rate Limit이 계속되어 거래 로그 " + chunk.size() + "건을 전송하지 못했습니다.");
+    }
+
+    /**
+     * 병합된 로그를 Embed로 변환합니다.
+     */
+    private DiscordWebhook.Embed toEmbed(MergedLog log) {
+        String title = "🛒 " + getActionEmoji(log.action) + " " + getActionName(log.action);
+        String description = log.count > 1
+                ? String.format("플레이어 **%s**님이 아이템을 %d회 %s했습니다.",
+                        log.playerName, log.count, getActionVerb(log.action))
+                : String.format("플레이어 **%s**님이 아이템을 %s했습니다.",
+                        log.playerName, getActionVerb(log.action));
+
+        return new DiscordWebhook.Embed(
+                title,
+                description,
+                getActionColor(log.action),
+                log.lastTimestamp,
+                "아이템", log.itemId,
+                "수량", String.valueOf(log.amount),
+                "가격", String.format("%.2f원", log.price));
     }
 
     private String getActionEmoji(String action) {
@@ -165,18 +361,61 @@ public class DiscordHook {
             }
         }
 
-        // 남은 메시지 처리
-        while (!messageQueue.isEmpty()) {
-            LogMessage message = messageQueue.poll();
-            if (message != null) {
-                sendToDiscord(message);
+        // 워커가 전송하지 못한 로그와 남은 메시지를 병합하여 한 번씩만 전송
+        // (워커가 아직 종료되지 않았다면 진행 중인 로그는 워커가 계속 사용하므로 건드리지 않음)
+        Map<MergeKey, MergedLog> merged = workerThread == null || !workerThread.isAlive()
+                ? inFlight
+                : new LinkedHashMap<>();
+        drainInto(merged);
+        try {
+            if (!merged.isEmpty() || unreportedDrops.get() > 0) {
+                deliver(merged, false);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // HTTP 클라이언트 스레드 정리 (플러그인 리로드 후 남지 않도록)
+            webhook.close();
         }
     }
 
     /**
      * 로그 메시지를 담는 레코드
      */
-    private record LogMessage(String playerName, String action, String itemId, int amount, double price) {
+    private record LogMessage(String playerName, String action, String itemId, int amount, double price,
+            Instant timestamp) {
+    }
+
+    /**
+     * 병합 기준 (플레이어, 행동, 아이템)
+     */
+    private record MergeKey(String playerName, String action, String itemId) {
+    }
+
+    /**
+     * 병합 대기 시간 동안 합쳐진 거래 로그
+     */
+    private static final class MergedLog {
+        private final String playerName;
+        private final String action;
+        private final String itemId;
+        private int count;
+        private long amount;
+        private double price;
+        private Instant lastTimestamp;
+
+        private MergedLog(LogMessage first) {
+            this.playerName = first.playerName;
+            this.action = first.action;
+            this.itemId = first.itemId;
+            add(first);
+        }
+
+        private void add(LogMessage message) {
+            count++;
+            amount += message.amount;
+            price += message.price;
+            lastTimestamp = message.timestamp;
+        }
     }
 }
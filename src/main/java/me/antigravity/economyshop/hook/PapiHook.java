@@ -8,6 +8,10 @@ import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * PlaceholderAPI 확장 클래스
  * 
@@ -22,7 +26,11 @@ import org.jetbrains.annotations.NotNull;
  */
 public class PapiHook extends PlaceholderExpansion {
 
+    // 캐시할 Placeholder 종류의 상한 (임의의 문자열 요청으로 무한히 커지는 것을 방지)
+    private static final int MAX_CACHED_RESOLVERS = 4096;
+
     private final EconomyShop plugin;
+    private final Map<String, Resolver> resolvers = new ConcurrentHashMap<>();
 
     public PapiHook(EconomyShop plugin) {
         this.plugin = plugin;
@@ -53,124 +61,195 @@ public class PapiHook extends PlaceholderExpansion {
         if (params == null)
             return "";
 
+        // 한 번 해석한 Placeholder는 대상 아이템/경제에 직접 연결된 Resolver로 재사용
+        Resolver resolver = resolvers.get(params);
+        if (resolver == null || !resolver.isValid()) {
+            if (resolvers.size() >= MAX_CACHED_RESOLVERS) {
+                resolvers.clear();
+            }
+            resolver = compile(params);
+            resolvers.put(params, resolver);
+        }
+        return resolver.resolve(player);
+    }
+
+    /**
+     * Placeholder 문자열을 해석하여 Resolver를 생성합니다.
+     */
+    private Resolver compile(String params) {
         // %economyshop_balance_<economy>%
         if (params.startsWith("balance_")) {
-            if (player == null || !player.isOnline())
-                return "0";
             String economyName = params.substring(8);
-            EconomyProvider provider = plugin.getEconomyManager().getProvider(economyName);
-            if (provider == null || !provider.isAvailable())
-                return "0";
-            return provider.formatAmount(provider.getBalance(player.getPlayer()));
+            return player -> {
+                if (player == null || !player.isOnline())
+                    return "0";
+                EconomyProvider provider = plugin.getEconomyManager().getProvider(economyName);
+                if (provider == null || !provider.isAvailable())
+                    return "0";
+                return provider.formatAmount(provider.getCachedBalance(player.getPlayer()));
+            };
         }
 
         // %economyshop_price_<section>_<itemid>%
         if (params.startsWith("price_")) {
-            String[] parts = params.substring(6).split("_", 2);
-            if (parts.length < 2)
-                return "N/A";
-
-            ShopItem item = findItem(parts[0], parts[1]);
-            if (item == null)
-                return "N/A";
-            return String.format("%.2f", item.getCurrentBuyPrice());
+            return itemResolver(params.substring(6), item -> String.format("%.2f", item.getCurrentBuyPrice()));
         }
 
         // %economyshop_sellprice_<section>_<itemid>%
         if (params.startsWith("sellprice_")) {
-            String[] parts = params.substring(10).split("_", 2);
-            if (parts.length < 2)
-                return "N/A";
-
-            ShopItem item = findItem(parts[0], parts[1]);
-            if (item == null)
-                return "N/A";
-            return String.format("%.2f", item.getCurrentSellPrice());
+            return itemResolver(params.substring(10), item -> String.format("%.2f", item.getCurrentSellPrice()));
         }
 
         // %economyshop_stock_<section>_<itemid>%
         if (params.startsWith("stock_")) {
-            String[] parts = params.substring(6).split("_", 2);
-            if (parts.length < 2)
-                return "N/A";
-
-            ShopItem item = findItem(parts[0], parts[1]);
-            if (item == null || !item.isDynamicPricing())
-                return "N/A";
-            return String.valueOf(item.getCurrentStock());
+            return itemResolver(params.substring(6),
+                    item -> item.isDynamicPricing() ? String.valueOf(item.getCurrentStock()) : "N/A");
         }
 
         // %economyshop_maxstock_<section>_<itemid>%
         if (params.startsWith("maxstock_")) {
-            String[] parts = params.substring(9).split("_", 2);
-            if (parts.length < 2)
-                return "N/A";
+            return itemResolver(params.substring(9),
+                    item -> item.isDynamicPricing() ? String.valueOf(item.getMaxStock()) : "N/A");
+        }
 
-            ShopItem item = findItem(parts[0], parts[1]);
-            if (item == null || !item.isDynamicPricing())
-                return "N/A";
-            return String.valueOf(item.getMaxStock());
+        // %economyshop_limit_max_<itemid>% (limit_보다 먼저 확인해야 함)
+        if (params.startsWith("limit_max_")) {
+            ItemBinding binding = bindById(params.substring(10));
+            return new ItemResolver(binding, "무제한",
+                    item -> item.getPlayerLimit() <= 0 ? "무제한" : String.valueOf(item.getPlayerLimit()));
         }
 
         // %economyshop_limit_<itemid>%
         if (params.startsWith("limit_")) {
-            if (player == null)
-                return "0";
             String itemId = params.substring(6);
-            return String.valueOf(plugin.getLimitManager().getCurrentUsage(player.getUniqueId(), itemId));
-        }
-
-        // %economyshop_limit_max_<itemid>%
-        if (params.startsWith("limit_max_")) {
-            String itemId = params.substring(10);
-            ShopItem item = findItemById(itemId);
-            if (item == null || item.getPlayerLimit() <= 0)
-                return "무제한";
-            return String.valueOf(item.getPlayerLimit());
+            return player -> player == null ? "0"
+                    : String.valueOf(plugin.getLimitManager().getCurrentUsage(player.getUniqueId(), itemId));
         }
 
         // %economyshop_dynamic_<section>_<itemid>%
         if (params.startsWith("dynamic_")) {
-            String[] parts = params.substring(8).split("_", 2);
-            if (parts.length < 2)
-                return "N/A";
-
-            ShopItem item = findItem(parts[0], parts[1]);
-            if (item == null)
-                return "N/A";
-            return item.isDynamicPricing() ? "활성" : "비활성";
+            return itemResolver(params.substring(8), item -> item.isDynamicPricing() ? "활성" : "비활성");
         }
 
-        return null;
+        return player -> null;
+    }
+
+    /**
+     * "<section>_<itemid>" 형식의 대상에 연결된 Resolver를 생성합니다.
+     */
+    private Resolver itemResolver(String target, Function<ShopItem, String> formatter) {
+        String[] parts = target.split("_", 2);
+        if (parts.length < 2)
+            return player -> "N/A";
+        return new ItemResolver(bind(parts[0], parts[1]), "N/A", formatter);
     }
 
     /**
-     * 섹션 ID와 아이템 ID로 ShopItem을 찾습니다.
+     * 섹션 ID와 아이템 ID로 ShopItem을 찾아 연결합니다.
      */
-    private ShopItem findItem(String sectionId, String itemId) {
+    private ItemBinding bind(String sectionId, String itemId) {
+        int generation = plugin.getShopManager().getCatalogGeneration();
         ShopSection section = plugin.getShopManager().getSections().get(sectionId);
         if (section == null)
-            return null;
+            return new ItemBinding(null, null, generation, 0);
 
         for (ShopItem item : section.getItems()) {
             if (item.getId().equals(itemId)) {
-                return item;
+                return new ItemBinding(item, section, generation, section.getStructureVersion());
             }
         }
-        return null;
+        return new ItemBinding(null, section, generation, section.getStructureVersion());
     }
 
     /**
-     * 아이템 ID로만 ShopItem을 찾습니다 (모든 섹션 검색).
+     * 아이템 ID로만 ShopItem을 찾아 연결합니다 (모든 섹션 검색).
+     * 찾지 못한 경우에는 세대 번호가 바뀔 때까지 결과를 재사용합니다.
      */
-    private ShopItem findItemById(String itemId) {
+    private ItemBinding bindById(String itemId) {
+        int generation = plugin.getShopManager().getCatalogGeneration();
         for (ShopSection section : plugin.getShopManager().getSections().values()) {
             for (ShopItem item : section.getItems()) {
                 if (item.getId().equals(itemId)) {
-                    return item;
+                    return new ItemBinding(item, section, generation, section.getStructureVersion());
                 }
             }
         }
-        return null;
+        return new ItemBinding(null, null, generation, 0);
+    }
+
+    /**
+     * 해석이 끝난 Placeholder
+     */
+    private interface Resolver {
+        String resolve(OfflinePlayer player);
+
+        /**
+         * 연결된 대상이 아직 유효한지 여부 (false면 다시 해석)
+         */
+        default boolean isValid() {
+            return true;
+        }
+    }
+
+    /**
+     * Placeholder가 가리키는 아이템과, 조회 당시의 섹션 구성 버전
+     */
+    private final class ItemBinding {
+        private final ShopItem item;
+        private final ShopSection section;
+        private final int catalogGeneration;
+        private final int structureVersion;
+
+        private ItemBinding(ShopItem item, ShopSection section, int catalogGeneration, int structureVersion) {
+            this.item = item;
+            this.section = section;
+            this.catalogGeneration = catalogGeneration;
+            this.structureVersion = structureVersion;
+        }
+
+        private boolean isValid() {
+            return plugin.getShopManager().getCatalogGeneration() == catalogGeneration
+                    && (section == null || section.getStructureVersion() == structureVersion);
+        }
+    }
+
+    /**
+     * 아이템 값을 출력하는 Resolver. 아이템 버전이 같으면 마지막으로 만든 문자열을 그대로 반환합니다.
+     */
+    private static final class ItemResolver implements Resolver {
+        private final ItemBinding binding;
+        private final String missing;
+        private final Function<ShopItem, String> formatter;
+        private volatile CachedText cached;
+
+        private ItemResolver(ItemBinding binding, String missing, Function<ShopItem, String> formatter) {
+            this.binding = binding;
+            this.missing = missing;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public String resolve(OfflinePlayer player) {
+            ShopItem item = binding.item;
+            if (item == null)
+                return missing;
+
+            int version = item.getVersion();
+            CachedText text = cached;
+            if (text != null && text.version == version)
+                return text.value;
+
+            String value = formatter.apply(item);
+            cached = new CachedText(version, value);
+            return value;
+        }
+
+        @Override
+        public boolean isValid() {
+            return binding.isValid();
+        }
+    }
+
+    private record CachedText(int version, String value) {
     }
 }
@@ -7,6 +7,10 @@ import me.antigravity.economyshop.gui.ShopEditorGUIHolder;
 import me.antigravity.economyshop.gui.ShopGUIHolder;
 import me.antigravity.economyshop.model.ShopItem;
 import me.antigravity.economyshop.model.ShopSection;
+import me.antigravity.economyshop.transaction.TransactionContext;
+import me.antigravity.economyshop.transaction.TransactionLine;
+import me.antigravity.economyshop.transaction.TransactionPipeline;
+import me.antigravity.economyshop.transaction.TransactionStages;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -31,16 +35,40 @@ public class ShopListener implements Listener {
         }
     }
 
+    @EventHandler(priority = org.bukkit.event.EventPriority.MONITOR)
+    public void onAsyncPreLogin(org.bukkit.event.player.AsyncPlayerPreLoginEvent event) {
+        // 접속 전에 오늘의 구매 제한 기록을 한 번에 미리 로드 (비동기 스레드)
+        if (event.getLoginResult() != org.bukkit.event.player.AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        plugin.getLimitManager().loadLimits(event.getUniqueId());
+    }
+
+    @EventHandler(priority = org.bukkit.event.EventPriority.MONITOR)
+    public void onPlayerLogin(org.bukkit.event.player.PlayerLoginEvent event) {
+        // 이후 단계에서 접속이 거부되면 미리 로드한 데이터 정리
+        if (event.getResult() != org.bukkit.event.player.PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getLimitManager().unloadLimits(event.getPlayer().getUniqueId());
+        }
+    }
+
     @EventHandler
     public void onPlayerQuit(org.bukkit.event.player.PlayerQuitEvent event) {
         // 플레이어 퇴장 시 메모리에서 제한 데이터 언로드
         plugin.getLimitManager().unloadLimits(event.getPlayer().getUniqueId());
+        plugin.getDiscountManager().invalidate(event.getPlayer().getUniqueId());
         plugin.getEditorManager().toggleEditor(event.getPlayer().getUniqueId()); // 에디터 모드 해제
         if (plugin.getEditorManager().isEditor(event.getPlayer().getUniqueId())) {
             plugin.getEditorManager().toggleEditor(event.getPlayer().getUniqueId()); // 확실히 제거
         }
     }
 
+    @EventHandler
+    public void onWorldChange(org.bukkit.event.player.PlayerChangedWorldEvent event) {
+        // 월드별 권한이 다를 수 있으므로 할인율을 다시 계산하도록 캐시 제거
+        plugin.getDiscountManager().invalidate(event.getPlayer().getUniqueId());
+    }
+
     /**
      * 메인 메뉴 클릭을 처리합니다.
      */
@@ -114,14 +142,11 @@ public class ShopListener implements Listener {
                 plugin.getEditorManager().deselectItem(player.getUniqueId());
                 player.sendMessage("§e선택이 취소되었습니다.");
             } else {
-                // 이동 실행
-                int oldSlot = selected.getSlot();
-                selected.setSlot(absoluteSlot);
-
-                if (clickedItem != null) {
-                    // 스왑 (대상 위치에 아이템이 있는 경우)
-                    clickedItem.setSlot(oldSlot);
-                    plugin.getShopManager().saveShopItem(holder.getSection(), clickedItem);
+                // 이동 실행 (대상 위치에 아이템이 있으면 스왑)
+                ShopItem swapped = holder.getSection().moveItem(selected, absoluteSlot);
+
+                if (swapped != null) {
+                    plugin.getShopManager().saveShopItem(holder.getSection(), swapped);
                     player.sendMessage("§a아이템 위치가 교체되었습니다.");
                 } else {
                     player.sendMessage("§a아이템이 이동되었습니다.");
@@ -141,10 +166,7 @@ public class ShopListener implements Listener {
     }
 
     private ShopItem findItemBySlot(ShopSection section, int absoluteSlot) {
-        return section.getItems().stream()
-                .filter(item -> item.getSlot() == absoluteSlot)
-                .findFirst()
-                .orElse(null);
+        return section.getItemAt(absoluteSlot);
     }
 
     private void handleNavigationClick(Player player, ShopGUIHolder holder, int slot) {
@@ -152,8 +174,7 @@ public class ShopListener implements Listener {
             holder.setPage(holder.getPage() - 1);
             plugin.getGuiManager().renderPage(holder);
         } else if (slot == 53) { // 다음 페이지
-            boolean hasNextPage = holder.getSection().getItems().stream()
-                    .anyMatch(item -> item.getSlot() >= (holder.getPage() + 1) * 45);
+            boolean hasNextPage = holder.getSection().getLastSlot() >= (holder.getPage() + 1) * 45;
 
             if (hasNextPage) {
                 holder.setPage(holder.getPage() + 1);
@@ -191,6 +212,12 @@ public class ShopListener implements Listener {
 
         // 구매 제한 확인
         if (!plugin.getLimitManager().canPurchase(player.getUniqueId(), item.getId(), item.getPlayerLimit())) {
+            if (!plugin.getLimitManager().isLoaded(player.getUniqueId())) {
+                // 구매 기록을 비동기로 불러오는 중 (접속 직후 리로드 등)
+                me.antigravity.economyshop.util.MessageUtils.sendActionBar(player,
+                        plugin.getLangManager().getMessage("error.limit-loading"));
+                return;
+            }
             String msg = plugin.getLangManager().getMessage("error.limit-reached")
                     .replace("{current}",
                             String.valueOf(
@@ -200,7 +227,8 @@ public class ShopListener implements Listener {
             return;
         }
 
-        double price = item.getCurrentBuyPrice();
+        // 권한 기반 할인 적용
+        double price = plugin.getDiscountManager().getDiscountedPrice(player, item, item.getCurrentBuyPrice());
 
         // 거래 전 이벤트 발생
         me.antigravity.economyshop.api.event.ShopPreTransactionEvent preEvent = new me.antigravity.economyshop.api.event.ShopPreTransactionEvent(
@@ -222,54 +250,33 @@ public class ShopListener implements Listener {
         price = preEvent.getPrice();
         int amount = preEvent.getAmount();
 
-        if (economy.has(player, price)) {
-            if (economy.withdraw(player, price)) {
-                // 아이템 지급 및 잔여물 처리
-                org.bukkit.inventory.ItemStack itemToGive = item.getItemStack().clone();
-                itemToGive.setAmount(amount);
-                java.util.HashMap<Integer, org.bukkit.inventory.ItemStack> leftovers = player.getInventory()
-                        .addItem(itemToGive);
-
-                if (!leftovers.isEmpty()) {
-                    for (org.bukkit.inventory.ItemStack leftover : leftovers.values()) {
-                        player.getWorld().dropItem(player.getLocation(), leftover);
-                    }
-                    player.sendMessage(plugin.getLangManager().getMessage("shop.inventory-full-drop")); // lang에 추가 필요,
-                                                                                                        // 혹은 하드코딩 메시지
-                    // "인벤토리가 가득 차서 아이템이 바닥에 떨어졌습니다."
-                }
+        org.bukkit.inventory.ItemStack itemToGive = item.getItemStack().clone();
+        itemToGive.setAmount(amount);
 
-                // 재고 감소
-                if (item.isDynamicPricing() && item.getCurrentStock() > 0) {
-                    item.setCurrentStock(item.getCurrentStock() - amount);
-                    // DB 업데이트
-                    plugin.getDatabaseManager().saveDynamicPrice(item.getId(), item.getCurrentStock());
-                }
-
-                // 구매 기록 갱신
-                plugin.getLimitManager().recordPurchase(player.getUniqueId(), item.getId(), amount);
-
-                // 메시지 및 로그
-                String msg = plugin.getLangManager().getMessage("shop.buy-success")
-                        .replace("{price}", economy.formatAmount(price));
-                me.antigravity.economyshop.util.MessageUtils.sendActionBar(player, msg); // Actionbar success
-
-                plugin.getLogManager().logTransaction(player.getName(), "BUY", item.getId(), amount, price);
-
-                // 거래 후 이벤트 발생
-                me.antigravity.economyshop.api.event.ShopPostTransactionEvent postEvent = new me.antigravity.economyshop.api.event.ShopPostTransactionEvent(
-                        player, section, item,
-                        me.antigravity.economyshop.api.event.ShopPreTransactionEvent.TransactionType.BUY,
-                        amount, price);
-                org.bukkit.Bukkit.getPluginManager().callEvent(postEvent);
-            } else {
-                player.sendMessage("§c거래 처리 중 오류가 발생했습니다. (출금 실패)");
-            }
-        } else {
-            String msg = plugin.getLangManager().getMessage("error.not-enough-money")
-                    .replace("{price}", economy.formatAmount(price));
-            me.antigravity.economyshop.util.MessageUtils.sendActionBar(player, msg); // Actionbar error
-        }
+        // 재고 예약 → 구매 제한 예약 → 출금 → 지급 → 확정 (실패 시 역순으로 보상)
+        TransactionContext context = new TransactionContext(player, economy,
+                me.antigravity.economyshop.api.event.ShopPreTransactionEvent.TransactionType.BUY,
+                java.util.List.of(new TransactionLine(section, item, amount, price, itemToGive)));
+
+        new TransactionPipeline(plugin)
+                .then(TransactionStages.reserveStock(plugin))
+                .then(TransactionStages.reserveLimit(plugin))
+                .then(TransactionStages.withdraw(plugin))
+                .then(TransactionStages.deliver(plugin))
+                .onCommit(ctx -> {
+                    String msg = plugin.getLangManager().getMessage("shop.buy-success")
+                            .replace("{price}", economy.formatAmount(ctx.getTotalPrice()));
+                    me.antigravity.economyshop.util.MessageUtils.sendActionBar(player, msg); // Actionbar success
+
+                    // 거래 후 이벤트 발생
+                    me.antigravity.economyshop.api.event.ShopPostTransactionEvent postEvent = new me.antigravity.economyshop.api.event.ShopPostTransactionEvent(
+                            player, ctx.getType(), ctx.getLines().stream().map(TransactionLine::toEventLine).toList(),
+                            ctx.getTotalPrice());
+                    org.bukkit.Bukkit.getPluginManager().callEvent(postEvent);
+                })
+                .async(ctx -> plugin.getLogManager().logTransaction(player.getName(), "BUY", item.getId(), amount,
+                        ctx.getTotalPrice()))
+                .execute(context);
     }
 
     private void performSell(Player player, ShopSection section, ShopItem item) {
@@ -285,13 +292,16 @@ public class ShopListener implements Listener {
                 .getInstance().getItemRegistry();
 
         // 플레이어 인벤토리에서 일치하는 아이템 찾기
+        // 슬롯마다 지문을 먼저 비교하고, 지문이 같을 때만 전체 비교
         org.bukkit.inventory.ItemStack shopItemStack = item.getItemStack();
+        long shopFingerprint = item.getFingerprint(itemRegistry);
         org.bukkit.inventory.ItemStack[] contents = player.getInventory().getContents();
         int foundSlot = -1;
 
         for (int i = 0; i < contents.length; i++) {
             org.bukkit.inventory.ItemStack invItem = contents[i];
-            if (invItem != null && itemRegistry.matches(shopItemStack, invItem)) {
+            if (invItem != null && itemRegistry.fingerprint(invItem) == shopFingerprint
+                    && itemRegistry.matches(shopItemStack, invItem)) {
                 foundSlot = i;
                 break;
             }
@@ -324,37 +334,32 @@ public class ShopListener implements Listener {
         price = preEvent.getPrice();
         int amount = preEvent.getAmount();
 
-        // 아이템 제거
         org.bukkit.inventory.ItemStack toRemove = item.getItemStack().clone();
         toRemove.setAmount(amount);
-        player.getInventory().removeItem(toRemove);
-
-        if (economy.deposit(player, price)) {
-            // 재고 증가
-            if (item.isDynamicPricing() && item.getCurrentStock() < item.getMaxStock()) {
-                item.setCurrentStock(item.getCurrentStock() + amount);
-                // DB 업데이트
-                plugin.getDatabaseManager().saveDynamicPrice(item.getId(), item.getCurrentStock());
-            }
-
-            // 메시지 및 로그
-            String msg = plugin.getLangManager().getMessage("shop.sell-success")
-                    .replace("{price}", economy.formatAmount(price));
-            player.sendMessage(msg);
-
-            plugin.getLogManager().logTransaction(player.getName(), "SELL", item.getId(), amount, price);
 
-            // 거래 후 이벤트 발생
-            me.antigravity.economyshop.api.event.ShopPostTransactionEvent postEvent = new me.antigravity.economyshop.api.event.ShopPostTransactionEvent(
-                    player, section, item,
-                    me.antigravity.economyshop.api.event.ShopPreTransactionEvent.TransactionType.SELL,
-                    amount, price);
-            org.bukkit.Bukkit.getPluginManager().callEvent(postEvent);
-        } else {
-            // 트랜잭션 실패 시 아이템 반환
-            player.getInventory().addItem(toRemove);
-            player.sendMessage("§c거래 처리 중 오류가 발생했습니다.");
-        }
+        // 아이템 회수 → 재고 반영 → 입금 → 확정 (실패 시 아이템 반환)
+        TransactionContext context = new TransactionContext(player, economy,
+                me.antigravity.economyshop.api.event.ShopPreTransactionEvent.TransactionType.SELL,
+                java.util.List.of(new TransactionLine(section, item, amount, price, toRemove)));
+
+        new TransactionPipeline(plugin)
+                .then(TransactionStages.takeItems(plugin, player.getInventory()))
+                .then(TransactionStages.reserveStock(plugin))
+                .then(TransactionStages.deposit(plugin))
+                .onCommit(ctx -> {
+                    String msg = plugin.getLangManager().getMessage("shop.sell-success")
+                            .replace("{price}", economy.formatAmount(ctx.getTotalPrice()));
+                    player.sendMessage(msg);
+
+                    // 거래 후 이벤트 발생
+                    me.antigravity.economyshop.api.event.ShopPostTransactionEvent postEvent = new me.antigravity.economyshop.api.event.ShopPostTransactionEvent(
+                            player, ctx.getType(), ctx.getLines().stream().map(TransactionLine::toEventLine).toList(),
+                            ctx.getTotalPrice());
+                    org.bukkit.Bukkit.getPluginManager().callEvent(postEvent);
+                })
+                .async(ctx -> plugin.getLogManager().logTransaction(player.getName(), "SELL", item.getId(), amount,
+                        ctx.getTotalPrice()))
+                .execute(context);
     }
 
     private void handleEditorInventoryClick(InventoryClickEvent event, ShopEditorGUIHolder holder) {
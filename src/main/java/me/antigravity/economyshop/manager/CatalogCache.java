@@ -0,0 +1,505 @@
+package me.antigravity.economyshop.manager;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.util.ItemSerializer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 파싱된 상점 파일(shops/*.yml)을 바이너리로 보관하는 카탈로그 캐시입니다.
+ *
+ * <p>
+ * 파일마다 크기, 수정 시각, SHA-256 해시와 함께 아이템 정의(가격, 재고, 요구사항 등)와
+ * 아이템 설정의 YAML 조각을 저장합니다. 크기와 수정 시각이 같으면 그대로 사용하고,
+ * 수정 시각만 다르면 해시를 비교하며, 내용이 바뀐 파일은 YAML로 다시 읽습니다.
+ * 아이템 스택은 캐시를 만들 때도 읽을 때도 만들지 않고, 아이템이 처음 사용될 때 조각에서 만들어집니다.
+ * (커스텀 아이템은 해당 플러그인이 준비된 뒤에 만들어야 하므로 같은 방식이 필요함)
+ * </p>
+ */
+public class CatalogCache {
+
+    private static final int MAGIC = 0x45534331; // "ESC1"
+    private static final int FORMAT_VERSION = 3;
+
+    private static final byte PAYLOAD_YAML = 2;
+
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_INT = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+
+    private final EconomyShop plugin;
+    private final File file;
+
+    // 파일 이름 -> 캐시 항목 (lookup은 로더 스레드에서 동시에 호출됨, store/save는 메인 스레드)
+    private final Map<String, FileEntry> entries = new ConcurrentHashMap<>();
+    // 이번 로드에서 확인된 파일 (삭제된 상점 파일은 저장 시 제외)
+    private final Map<String, FileEntry> seen = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public CatalogCache(EconomyShop plugin, File file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+
+    /**
+     * 캐시 파일을 읽습니다. 형식 버전이나 플러그인 버전이 다르면 전체를 버립니다.
+     */
+    public void load() {
+        entries.clear();
+        seen.clear();
+        dirty = false;
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(plugin.getDescription().getVersion())) {
+                plugin.getLogger().info("카탈로그 캐시 버전이 달라 YAML에서 다시 생성합니다.");
+                return;
+            }
+
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                FileEntry entry = readFileEntry(in);
+                entries.put(entry.fileName, entry);
+            }
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+            plugin.getLogger().warning("카탈로그 캐시를 읽지 못해 YAML에서 다시 생성합니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 새 로드를 시작합니다. 이번 로드에서 조회/저장되지 않은 파일은 다음 저장 시 제외됩니다.
+     */
+    public void beginScan() {
+        seen.clear();
+    }
+
+    /**
+     * 상점 파일이 바뀌지 않았으면 캐시된 아이템 정의를 반환합니다. 여러 스레드에서 호출할 수 있습니다.
+     *
+     * @param shopFile 상점 YAML 파일
+     * @return 아이템 정의 목록, 캐시가 없거나 파일이 바뀌었으면 null
+     */
+    public List<ItemDefinition> lookup(File shopFile) {
+        FileEntry entry = entries.get(shopFile.getName());
+        if (entry == null) {
+            return null;
+        }
+
+        long size = shopFile.length();
+        long modified = shopFile.lastModified();
+        if (entry.size != size) {
+            return null;
+        }
+
+        if (entry.modified != modified) {
+            // 수정 시각만 바뀐 경우 (복사, 체크아웃 등) 내용 해시로 확인
+            try {
+                if (!Arrays.equals(entry.hash, hash(Files.readAllBytes(shopFile.toPath())))) {
+                    return null;
+                }
+            } catch (IOException e) {
+                return null;
+            }
+            entry = new FileEntry(entry.fileName, size, modified, entry.hash, entry.definitions);
+            entries.put(entry.fileName, entry);
+            dirty = true;
+        }
+
+        seen.put(entry.fileName, entry);
+        return entry.definitions;
+    }
+
+    /**
+     * YAML에서 읽은 아이템 정의를 캐시에 저장할 대상으로 등록합니다.
+     * 캐시에 담을 수 없는 값(지원하지 않는 요구사항 형식 등)이 있으면 해당 파일은 캐시하지 않습니다.
+     *
+     * @param shopFile    상점 YAML 파일
+     * @param definitions YAML에서 읽은 아이템 정의
+     */
+    public void store(File shopFile, List<ItemDefinition> definitions) {
+        try {
+            byte[] hash = hash(Files.readAllBytes(shopFile.toPath()));
+            for (ItemDefinition definition : definitions) {
+                definition.preparePayload();
+            }
+            FileEntry entry = new FileEntry(shopFile.getName(), shopFile.length(), shopFile.lastModified(), hash,
+                    definitions);
+            // 인코딩 가능한지 미리 확인
+            writeFileEntry(new DataOutputStream(new ByteArrayOutputStream()), entry);
+
+            entries.put(entry.fileName, entry);
+            seen.put(entry.fileName, entry);
+            dirty = true;
+        } catch (IOException | IllegalArgumentException e) {
+            plugin.getLogger().fine("상점 파일을 캐시하지 않습니다 (" + shopFile.getName() + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * 변경된 캐시를 비동기로 저장합니다. 이번 로드에서 확인되지 않은 파일은 제외됩니다.
+     */
+    public void save() {
+        if (!dirty && seen.size() == entries.size()) {
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(plugin.getDescription().getVersion());
+            out.writeInt(seen.size());
+            for (FileEntry entry : seen.values()) {
+                writeFileEntry(out, entry);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("카탈로그 캐시 인코딩 실패: " + e.getMessage());
+            return;
+        }
+
+        entries.keySet().retainAll(seen.keySet());
+        dirty = false;
+
+        final byte[] data = buffer.toByteArray();
+        CompletableFuture.runAsync(() -> {
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try {
+                file.getParentFile().mkdirs();
+                try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(temp.toPath()))) {
+                    out.write(data);
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                plugin.getLogger().warning("카탈로그 캐시 저장 실패: " + e.getMessage());
+            }
+        });
+    }
+
+    static byte[] hash(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FileEntry readFileEntry(DataInputStream in) throws IOException {
+        String fileName = in.readUTF();
+        long size = in.readLong();
+        long modified = in.readLong();
+        byte[] hash = new byte[in.readUnsignedByte()];
+        in.readFully(hash);
+
+        int itemCount = in.readInt();
+        List<ItemDefinition> definitions = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            definitions.add(readDefinition(in));
+        }
+        return new FileEntry(fileName, size, modified, hash, definitions);
+    }
+
+    private static void writeFileEntry(DataOutputStream out, FileEntry entry) throws IOException {
+        out.writeUTF(entry.fileName);
+        out.writeLong(entry.size);
+        out.writeLong(entry.modified);
+        out.writeByte(entry.hash.length);
+        out.write(entry.hash);
+
+        out.writeInt(entry.definitions.size());
+        for (ItemDefinition definition : entry.definitions) {
+            writeDefinition(out, definition);
+        }
+    }
+
+    private ItemDefinition readDefinition(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        long sourceHash = in.readLong();
+        int slot = in.readInt();
+        double buy = in.readDouble();
+        double sell = in.readDouble();
+        boolean dynamicPricing = in.readBoolean();
+        long maxStock = in.readLong();
+        double minPrice = in.readDouble();
+        double maxPrice = in.readDouble();
+        String pricingModel = in.readBoolean() ? in.readUTF() : null;
+        double pricingSteepness = in.readDouble();
+
+        int permissionCount = in.readInt();
+        List<String> permissions = new ArrayList<>(permissionCount);
+        for (int i = 0; i < permissionCount; i++) {
+            permissions.add(in.readUTF());
+        }
+
+        Map<String, Object> requirements = null;
+        int requirementCount = in.readInt();
+        if (requirementCount >= 0) {
+            requirements = new LinkedHashMap<>();
+            for (int i = 0; i < requirementCount; i++) {
+                requirements.put(in.readUTF(), readValue(in));
+            }
+        }
+
+        byte payloadType = in.readByte();
+        if (payloadType != PAYLOAD_YAML) {
+            throw new IOException("알 수 없는 아이템 데이터 형식: " + payloadType);
+        }
+        ItemDefinition definition = new ItemDefinition(id, slot, buy, sell, dynamicPricing, maxStock, minPrice,
+                maxPrice, pricingModel, pricingSteepness, permissions, requirements, null);
+        definition.sourceHash = sourceHash;
+        String yaml = readLongString(in);
+        definition.itemYaml = yaml;
+        definition.itemLoader = () -> {
+            YamlConfiguration config = new YamlConfiguration();
+            try {
+                config.loadFromString(yaml);
+            } catch (org.bukkit.configuration.InvalidConfigurationException e) {
+                plugin.getLogger().warning("캐시된 아이템 설정을 읽지 못했습니다 (" + id + "): " + e.getMessage());
+            }
+            return ItemSerializer.deserialize(plugin, config);
+        };
+        return definition;
+    }
+
+    private static void writeDefinition(DataOutputStream out, ItemDefinition definition) throws IOException {
+        out.writeUTF(definition.id);
+        out.writeLong(definition.sourceHash);
+        out.writeInt(definition.slot);
+        out.writeDouble(definition.buyPrice);
+        out.writeDouble(definition.sellPrice);
+        out.writeBoolean(definition.dynamicPricing);
+        out.writeLong(definition.maxStock);
+        out.writeDouble(definition.minPrice);
+        out.writeDouble(definition.maxPrice);
+        out.writeBoolean(definition.pricingModel != null);
+        if (definition.pricingModel != null) {
+            out.writeUTF(definition.pricingModel);
+        }
+        out.writeDouble(definition.pricingSteepness);
+
+        out.writeInt(definition.permissions.size());
+        for (String permission : definition.permissions) {
+            out.writeUTF(permission);
+        }
+
+        if (definition.requirements == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(definition.requirements.size());
+            for (Map.Entry<String, Object> requirement : definition.requirements.entrySet()) {
+                out.writeUTF(requirement.getKey());
+                writeValue(out, requirement.getValue());
+            }
+        }
+
+        if (definition.itemYaml != null) {
+            out.writeByte(PAYLOAD_YAML);
+            writeLongString(out, definition.itemYaml);
+        } else {
+            throw new IllegalArgumentException("아이템 데이터 없음: " + definition.id);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case VALUE_STRING -> in.readUTF();
+            case VALUE_INT -> in.readInt();
+            case VALUE_LONG -> in.readLong();
+            case VALUE_DOUBLE -> in.readDouble();
+            case VALUE_BOOLEAN -> in.readBoolean();
+            default -> throw new IOException("알 수 없는 값 형식: " + type);
+        };
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String string) {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF(string);
+        } else if (value instanceof Integer number) {
+            out.writeByte(VALUE_INT);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean(bool);
+        } else {
+            throw new IllegalArgumentException("캐시할 수 없는 요구사항 값: " + value);
+        }
+    }
+
+    // writeUTF는 64KB 제한이 있으므로 긴 문자열은 길이 + UTF-8 바이트로 저장
+    private static void writeLongString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 상점 파일 하나의 캐시 항목
+     */
+    private record FileEntry(String fileName, long size, long modified, byte[] hash,
+            List<ItemDefinition> definitions) {
+    }
+
+    /**
+     * 상점 아이템 하나의 정의 (YAML 또는 캐시에서 읽은 원본 값)
+     * 전역/섹션 설정과 결합하기 전의 값이므로 동적 가격 여부 등은 로드 시 다시 계산됩니다.
+     */
+    @Getter
+    public static final class ItemDefinition {
+        private final String id;
+        private final int slot;
+        private final double buyPrice;
+        private final double sellPrice;
+        private final boolean dynamicPricing;
+        private final long maxStock;
+        private final double minPrice;
+        private final double maxPrice;
+        private final String pricingModel;
+        private final double pricingSteepness;
+        private final List<String> permissions;
+        private final Map<String, Object> requirements;
+
+        private Supplier<ItemStack> itemLoader;
+        // 슬롯을 제외한 아이템 설정 전체의 해시 (핫 리로드 시 변경 여부 비교용)
+        private long sourceHash;
+
+        // YAML에서 읽은 경우 아이템 설정 (캐시 저장 시 사용)
+        @Getter(AccessLevel.NONE)
+        private final ConfigurationSection source;
+        @Getter(AccessLevel.NONE)
+        private String itemYaml;
+
+        private ItemDefinition(String id, int slot, double buyPrice, double sellPrice, boolean dynamicPricing,
+                long maxStock, double minPrice, double maxPrice, String pricingModel, double pricingSteepness,
+                List<String> permissions, Map<String, Object> requirements, ConfigurationSection source) {
+            this.id = id;
+            this.slot = slot;
+            this.buyPrice = buyPrice;
+            this.sellPrice = sellPrice;
+            this.dynamicPricing = dynamicPricing;
+            this.maxStock = maxStock;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.pricingModel = pricingModel;
+            this.pricingSteepness = pricingSteepness;
+            this.permissions = permissions;
+            this.requirements = requirements;
+            this.source = source;
+        }
+
+        /**
+         * YAML 아이템 설정에서 정의를 읽습니다. 아이템 스택은 처음 사용할 때 만들어집니다.
+         */
+        public static ItemDefinition fromYaml(EconomyShop plugin, String id, ConfigurationSection itemData) {
+            ItemDefinition definition = new ItemDefinition(id,
+                    itemData.getInt("slot", -1),
+                    itemData.getDouble("buy", 0.0),
+                    itemData.getDouble("sell", 0.0),
+                    itemData.getBoolean("dynamic-pricing", false),
+                    itemData.getLong("max-stock", 1000L),
+                    itemData.getDouble("min-price", 0.0),
+                    itemData.getDouble("max-price", 10000.0),
+                    itemData.getString("pricing-model"),
+                    itemData.getDouble("pricing-steepness", 0.0),
+                    itemData.getStringList("permissions"),
+                    itemData.isConfigurationSection("requirements")
+                            ? itemData.getConfigurationSection("requirements").getValues(false)
+                            : null,
+                    itemData);
+            definition.sourceHash = hashSource(itemData);
+            definition.itemLoader = new Supplier<>() {
+                private ItemStack loaded;
+
+                @Override
+                public ItemStack get() {
+                    if (loaded == null) {
+                        loaded = ItemSerializer.deserialize(plugin, itemData);
+                    }
+                    return loaded;
+                }
+            };
+            return definition;
+        }
+
+        /**
+         * 아이템 설정 값을 순서대로 이어 64비트 해시를 계산합니다. 슬롯은 위치 이동만으로 아이템이
+         * 교체되지 않도록 제외합니다.
+         */
+        private static long hashSource(ConfigurationSection itemData) {
+            long hash = 1125899906842597L;
+            for (Map.Entry<String, Object> value : itemData.getValues(true).entrySet()) {
+                if (value.getValue() instanceof ConfigurationSection || value.getKey().equals("slot")) {
+                    continue;
+                }
+                String text = value.getKey() + '=' + value.getValue() + ';';
+                for (int i = 0; i < text.length(); i++) {
+                    hash = 31 * hash + text.charAt(i);
+                }
+            }
+            return hash;
+        }
+
+        /**
+         * 캐시에 저장할 아이템 설정 YAML 조각을 준비합니다. 아이템 스택은 만들지 않습니다.
+         */
+        private void preparePayload() {
+            if (itemYaml != null) {
+                return;
+            }
+            if (source == null) {
+                throw new IllegalArgumentException("아이템 데이터 없음: " + id);
+            }
+
+            YamlConfiguration snippet = new YamlConfiguration();
+            for (Map.Entry<String, Object> value : source.getValues(true).entrySet()) {
+                if (!(value.getValue() instanceof ConfigurationSection)) {
+                    snippet.set(value.getKey(), value.getValue());
+                }
+            }
+            itemYaml = snippet.saveToString();
+        }
+    }
+}
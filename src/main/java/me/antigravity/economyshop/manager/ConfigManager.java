@@ -5,7 +5,6 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.io.IOException;
 
 public class ConfigManager {
 
@@ -55,15 +54,18 @@ public class ConfigManager {
     }
 
     /**
-     * sections.yml 파일을 저장합니다.
+     * sections.yml만 다시 읽습니다.
+     */
+    public void reloadSectionsConfig() {
+        this.sectionsConfig = YamlConfiguration.loadConfiguration(sectionsFile);
+    }
+
+    /**
+     * sections.yml 파일 저장을 예약합니다. (상점 파일과 같은 저장 큐를 사용)
      */
     public void saveSectionsConfig() {
         if (sectionsConfig != null && sectionsFile != null) {
-            try {
-                sectionsConfig.save(sectionsFile);
-            } catch (IOException e) {
-                plugin.getLogger().severe("sections.yml 저장 실패: " + e.getMessage());
-            }
+            plugin.getShopManager().getFileWriter().save(sectionsFile, sectionsConfig);
         }
     }
 
@@ -10,6 +10,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 플러그인의 데이터베이스 연결(HikariCP)을 관리하는 클래스입니다.
@@ -19,6 +23,8 @@ public class DatabaseManager {
 
     private final EconomyShop plugin;
     private HikariDataSource dataSource;
+    private boolean sqlite;
+    private WriteBehindBuffer writeBuffer;
 
     public DatabaseManager(EconomyShop plugin) {
         this.plugin = plugin;
@@ -32,6 +38,10 @@ public class DatabaseManager {
 
         setupDataSource(type);
         createTables();
+
+        // 재고/제한 쓰기는 버퍼에 모아서 일괄 저장
+        this.writeBuffer = new WriteBehindBuffer(plugin, this);
+        this.writeBuffer.start();
     }
 
     private void setupDataSource(String type) {
@@ -49,6 +59,7 @@ public class DatabaseManager {
             config.setPassword(password);
         } else {
             // 기본값: SQLite
+            this.sqlite = true;
             File dbFile = new File(plugin.getDataFolder(), "database.db");
             config.setJdbcUrl("jdbc:sqlite:" + dbFile.getAbsolutePath());
             config.setDriverClassName("org.sqlite.JDBC");
@@ -74,6 +85,16 @@ public class DatabaseManager {
                     "reset_date DATE, " +
                     "PRIMARY KEY (uuid, item_id, reset_date))");
 
+            if (sqlite) {
+                // 날짜를 java.sql.Date로 바인딩하던 버전이 밀리초 숫자로 저장한 행을 'YYYY-MM-DD' 형식으로 변환
+                int migrated = stmt.executeUpdate("UPDATE OR REPLACE player_limits "
+                        + "SET reset_date = date(reset_date / 1000, 'unixepoch', 'localtime') "
+                        + "WHERE typeof(reset_date) = 'integer'");
+                if (migrated > 0) {
+                    plugin.getLogger().info("구매 제한 기록 " + migrated + "건의 날짜 형식을 변환했습니다.");
+                }
+            }
+
         } catch (SQLException e) {
             plugin.getLogger().severe("테이블 생성 중 오류 발생: " + e.getMessage());
         }
@@ -84,6 +105,10 @@ public class DatabaseManager {
     }
 
     public void close() {
+        // 연결을 닫기 전에 버퍼에 남은 변경 사항을 모두 저장
+        if (writeBuffer != null) {
+            writeBuffer.shutdown();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
@@ -102,6 +127,33 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * 동적 재고 변경을 write-behind 버퍼에 기록합니다.
+     * 실제 DB 저장은 버퍼의 주기 또는 임계치에 따라 일괄 처리됩니다.
+     */
+    public void queueDynamicPrice(String itemId, long currentStock) {
+        if (writeBuffer == null) {
+            saveDynamicPrice(itemId, currentStock);
+            return;
+        }
+        writeBuffer.queueDynamicStock(itemId, currentStock);
+    }
+
+    /**
+     * 여러 아이템의 동적 재고 변경을 한 번에 기록합니다.
+     * 버퍼가 없으면 하나의 트랜잭션으로 바로 저장합니다.
+     */
+    public void queueDynamicPrices(Map<String, Long> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        if (writeBuffer == null) {
+            writeBatch(stocks, java.util.Collections.emptyMap());
+            return;
+        }
+        writeBuffer.queueDynamicStocks(stocks);
+    }
+
     public long loadDynamicStock(String itemId, long defaultStock) {
         String sql = "SELECT current_stock FROM shop_dynamic_prices WHERE item_id = ?";
         try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -117,25 +169,76 @@ public class DatabaseManager {
         return defaultStock;
     }
 
+    /**
+     * shop_dynamic_prices 테이블 전체를 한 번의 스트리밍 조회로 읽어옵니다.
+     * 상점 로드 시 아이템마다 개별 쿼리를 실행하지 않도록 미리 맵으로 적재합니다.
+     * 아직 버퍼에 남아 있는 변경 사항은 DB 값보다 우선합니다.
+     *
+     * @return 아이템 ID -> 현재 재고
+     */
+    public Map<String, Long> loadAllDynamicStocks() {
+        if (writeBuffer == null) {
+            return scanDynamicStocks();
+        }
+        return writeBuffer.readStocks(this::scanDynamicStocks);
+    }
+
+    private Map<String, Long> scanDynamicStocks() {
+        Map<String, Long> stocks = new HashMap<>();
+        String sql = "SELECT item_id, current_stock FROM shop_dynamic_prices";
+        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setFetchSize(1000);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    stocks.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("동적 재고 일괄 로드 중 오류 발생: " + e.getMessage());
+        }
+        return stocks;
+    }
+
     // --- 플레이어 제한 관련 ---
 
+    /**
+     * 구매 제한 기록의 오늘 날짜를 반환합니다.
+     * 기존 기록이 SQLite의 CURRENT_DATE로 저장되었으므로 같은 기준(UTC)을 사용합니다.
+     */
+    public static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
     public void savePlayerLimit(String uuid, String itemId, int count) {
-        String sql = "REPLACE INTO player_limits (uuid, item_id, purchase_count, reset_date) VALUES (?, ?, ?, CURRENT_DATE)";
+        String sql = "REPLACE INTO player_limits (uuid, item_id, purchase_count, reset_date) VALUES (?, ?, ?, ?)";
         try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, uuid);
             pstmt.setString(2, itemId);
             pstmt.setInt(3, count);
+            pstmt.setString(4, today().toString());
             pstmt.executeUpdate();
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 플레이어 구매 횟수 변경을 write-behind 버퍼에 기록합니다.
+     */
+    public void queuePlayerLimit(String uuid, String itemId, int count) {
+        if (writeBuffer == null) {
+            savePlayerLimit(uuid, itemId, count);
+            return;
+        }
+        writeBuffer.queuePlayerLimit(uuid, itemId, count);
+    }
+
     public int loadPlayerLimit(String uuid, String itemId) {
-        String sql = "SELECT purchase_count FROM player_limits WHERE uuid = ? AND item_id = ? AND reset_date = CURRENT_DATE";
+        String sql = "SELECT purchase_count FROM player_limits WHERE uuid = ? AND item_id = ? AND reset_date = ?";
         try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, uuid);
             pstmt.setString(2, itemId);
+            pstmt.setString(3, today().toString());
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getInt("purchase_count");
@@ -146,4 +249,90 @@ public class DatabaseManager {
         }
         return 0;
     }
+
+    /**
+     * 플레이어의 오늘 날짜(UTC 기준) 구매 기록을 한 번의 쿼리로 모두 읽어옵니다.
+     * 접속 시(AsyncPlayerPreLoginEvent) 비동기 스레드에서 호출됩니다.
+     *
+     * @return 아이템 ID -> 구매 횟수
+     */
+    public Map<String, Integer> loadPlayerLimits(String uuid) {
+        if (writeBuffer == null) {
+            return scanPlayerLimits(uuid);
+        }
+        return writeBuffer.readLimits(uuid, () -> scanPlayerLimits(uuid));
+    }
+
+    private Map<String, Integer> scanPlayerLimits(String uuid) {
+        Map<String, Integer> limits = new HashMap<>();
+        String sql = "SELECT item_id, purchase_count FROM player_limits WHERE uuid = ? AND reset_date = ?";
+        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, uuid);
+            pstmt.setString(2, today().toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    limits.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("플레이어 구매 제한 로드 중 오류 발생 (" + uuid + "): " + e.getMessage());
+        }
+        return limits;
+    }
+
+    // --- 일괄 저장 ---
+
+    /**
+     * 재고 및 제한 변경 사항을 하나의 트랜잭션 안에서 JDBC 배치로 저장합니다.
+     *
+     * @return 커밋 성공 여부 (실패 시 전체 롤백)
+     */
+    public boolean writeBatch(Map<String, Long> stocks, Map<WriteBehindBuffer.LimitKey, Integer> limits) {
+        if (stocks.isEmpty() && limits.isEmpty()) {
+            return true;
+        }
+
+        String stockSql = "REPLACE INTO shop_dynamic_prices (item_id, current_stock, last_updated) VALUES (?, ?, CURRENT_TIMESTAMP)";
+        // 날짜는 저장 시점이 아닌 구매 시점의 날짜 (자정 직전 구매가 다음 날 기록으로 저장되지 않도록)
+        String limitSql = "REPLACE INTO player_limits (uuid, item_id, purchase_count, reset_date) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stockStmt = conn.prepareStatement(stockSql);
+                    PreparedStatement limitStmt = conn.prepareStatement(limitSql)) {
+                for (Map.Entry<String, Long> entry : stocks.entrySet()) {
+                    stockStmt.setString(1, entry.getKey());
+                    stockStmt.setLong(2, entry.getValue());
+                    stockStmt.addBatch();
+                }
+                for (Map.Entry<WriteBehindBuffer.LimitKey, Integer> entry : limits.entrySet()) {
+                    limitStmt.setString(1, entry.getKey().uuid());
+                    limitStmt.setString(2, entry.getKey().itemId());
+                    limitStmt.setInt(3, entry.getValue());
+                    // 'YYYY-MM-DD' 문자열로 저장 (SQLite는 java.sql.Date를 밀리초 숫자로 저장하여 기존 기록과 맞지 않음)
+                    limitStmt.setString(4, entry.getKey().date().toString());
+                    limitStmt.addBatch();
+                }
+
+                if (!stocks.isEmpty()) {
+                    stockStmt.executeBatch();
+                }
+                if (!limits.isEmpty()) {
+                    limitStmt.executeBatch();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("DB 일괄 저장 중 오류 발생 (" + (stocks.size() + limits.size()) + "건): "
+                    + e.getMessage());
+            return false;
+        }
+    }
 }
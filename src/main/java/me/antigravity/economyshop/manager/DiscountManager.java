@@ -2,66 +2,169 @@ package me.antigravity.economyshop.manager;
 
 import me.antigravity.economyshop.EconomyShop;
 import me.antigravity.economyshop.model.ShopItem;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 할인 시스템 매니저
  * 권한 기반 할인율을 계산하고 적용합니다.
+ *
+ * 할인 등급은 config.yml의 discounts 섹션에서 읽어 할인율이 높은 순으로 정렬해 두고,
+ * 플레이어별로 계산한 할인율은 일정 시간 동안 캐시합니다.
+ * 캐시는 월드 이동, 퇴장, 설정 리로드 시 무효화됩니다.
  */
 public class DiscountManager {
 
+    private static final String PERMISSION_PREFIX = "economyshop.discount.";
+    // discounts 섹션에서 등급이 아닌 설정 키
+    private static final Set<String> SETTING_KEYS = Set.of("max-rate", "cache-ttl", "percent-nodes", "tiers");
+
     private final EconomyShop plugin;
 
+    // 할인율 내림차순으로 정렬된 등급 (처음 일치하는 권한이 최대 할인율)
+    private volatile Tier[] tiers = new Tier[0];
+    private volatile double maxRate = 0.90;
+    private volatile long cacheTtlMillis = 30_000L;
+
+    private final Map<UUID, CachedRate> cache = new ConcurrentHashMap<>();
+
     public DiscountManager(EconomyShop plugin) {
         this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * config.yml에서 할인 등급을 다시 읽고 캐시를 비웁니다.
+     *
+     * 설정 예시:
+     * discounts:
+     *   max-rate: 0.90
+     *   cache-ttl: 30
+     *   percent-nodes: true   # economyshop.discount.5 ~ .100 (5 단위)
+     *   tiers:
+     *     vip: 0.15           # economyshop.discount.vip
+     *
+     * tiers가 없으면 이전 형식(discounts.vip: 0.15)의 값을 등급으로 읽고 경고를 남깁니다.
+     */
+    public void reload() {
+        ConfigurationSection config = plugin.getConfigManager().getMainConfig().getConfigurationSection("discounts");
+
+        List<Tier> loaded = new ArrayList<>();
+        boolean percentNodes = true;
+        if (config != null) {
+            this.maxRate = config.getDouble("max-rate", 0.90);
+            this.cacheTtlMillis = Math.max(0, config.getLong("cache-ttl", 30)) * 1000L;
+            percentNodes = config.getBoolean("percent-nodes", true);
+
+            ConfigurationSection tierSection = config.getConfigurationSection("tiers");
+            if (tierSection != null) {
+                readTiers(tierSection, loaded);
+            } else {
+                // 이전 형식: discounts.vip / discounts.mvp / discounts.premium 처럼 바로 아래에 등급을 적음
+                readTiers(config, loaded);
+                if (loaded.isEmpty()) {
+                    addDefaultTiers(loaded);
+                } else {
+                    plugin.getLogger().warning("config.yml의 discounts 아래 등급(" + loaded.size()
+                            + "개)은 이전 형식입니다. discounts.tiers 아래로 옮겨주세요. (이번에는 그대로 적용합니다)");
+                }
+            }
+        } else {
+            addDefaultTiers(loaded);
+        }
+
+        // 숫자 기반 권한 노드 (economyshop.discount.X)
+        if (percentNodes) {
+            for (int i = 5; i <= 100; i += 5) {
+                loaded.add(new Tier(PERMISSION_PREFIX + i, i / 100.0));
+            }
+        }
+
+        loaded.sort(Comparator.comparingDouble(Tier::rate).reversed());
+        this.tiers = loaded.toArray(new Tier[0]);
+        cache.clear();
+    }
+
+    /**
+     * 섹션 바로 아래의 숫자 값을 등급으로 읽습니다. (할인 설정 키는 제외)
+     */
+    private void readTiers(ConfigurationSection section, List<Tier> loaded) {
+        for (String key : section.getKeys(false)) {
+            if (SETTING_KEYS.contains(key) || (!section.isDouble(key) && !section.isInt(key))) {
+                continue;
+            }
+            double rate = section.getDouble(key, 0.0);
+            if (rate > 0) {
+                loaded.add(new Tier(PERMISSION_PREFIX + key, rate));
+            }
+        }
+    }
+
+    /**
+     * 이전 버전과 동일한 기본 등급
+     */
+    private void addDefaultTiers(List<Tier> loaded) {
+        loaded.add(new Tier(PERMISSION_PREFIX + "vip", 0.15));
+        loaded.add(new Tier(PERMISSION_PREFIX + "mvp", 0.25));
+        loaded.add(new Tier(PERMISSION_PREFIX + "premium", 0.35));
     }
 
     /**
-     * 플레이어의 할인율을 계산합니다.
-     * 
+     * 플레이어의 할인율을 반환합니다.
+     *
      * 권한 노드 예시:
      * - economyshop.discount.5 -> 5% 할인
      * - economyshop.discount.10 -> 10% 할인
      * - economyshop.discount.vip -> config에서 정의된 VIP 할인율
-     * 
+     *
      * @param player 플레이어
      * @param item   아이템 (아이템별 할인이 있을 경우)
      * @return 할인율 (0.0 ~ 1.0, 예: 0.1 = 10% 할인)
      */
     public double getDiscountRate(Player player, ShopItem item) {
-        double maxDiscount = 0.0;
-
-        // 숫자 기반 권한 노드 확인 (economyshop.discount.X)
-        for (int i = 100; i >= 5; i -= 5) {
-            if (player.hasPermission("economyshop.discount." + i)) {
-                maxDiscount = Math.max(maxDiscount, i / 100.0);
-                break;
-            }
+        long now = System.currentTimeMillis();
+        CachedRate cached = cache.get(player.getUniqueId());
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.rate();
         }
 
-        // 이름 기반 권한 노드 (config.yml에서 정의)
-        if (player.hasPermission("economyshop.discount.vip")) {
-            double vipDiscount = plugin.getConfigManager().getMainConfig().getDouble("discounts.vip", 0.15);
-            maxDiscount = Math.max(maxDiscount, vipDiscount);
-        }
-
-        if (player.hasPermission("economyshop.discount.mvp")) {
-            double mvpDiscount = plugin.getConfigManager().getMainConfig().getDouble("discounts.mvp", 0.25);
-            maxDiscount = Math.max(maxDiscount, mvpDiscount);
-        }
+        double rate = resolveRate(player);
+        cache.put(player.getUniqueId(), new CachedRate(rate, now + cacheTtlMillis));
+        return rate;
+    }
 
-        if (player.hasPermission("economyshop.discount.premium")) {
-            double premiumDiscount = plugin.getConfigManager().getMainConfig().getDouble("discounts.premium", 0.35);
-            maxDiscount = Math.max(maxDiscount, premiumDiscount);
+    /**
+     * 권한을 확인하여 할인율을 계산합니다. 할인율이 높은 등급부터 확인하므로 처음 일치하는 등급에서 멈춥니다.
+     * 선언되지 않은 권한은 OP에게 기본으로 허용되므로, 명시적으로 부여된 권한만 할인으로 인정합니다.
+     */
+    private double resolveRate(Player player) {
+        for (Tier tier : tiers) {
+            if (player.isPermissionSet(tier.permission()) && player.hasPermission(tier.permission())) {
+                // 최대 할인율 제한 (기본 90%)
+                return Math.min(tier.rate(), maxRate);
+            }
         }
+        return 0.0;
+    }
 
-        // 최대 할인율 제한 (90%)
-        return Math.min(maxDiscount, 0.90);
+    /**
+     * 플레이어의 캐시된 할인율을 제거합니다. (권한 변경, 월드 이동, 퇴장 시)
+     */
+    public void invalidate(UUID uuid) {
+        cache.remove(uuid);
     }
 
     /**
      * 할인이 적용된 가격을 계산합니다.
-     * 
+     *
      * @param player        플레이어
      * @param item          아이템
      * @param originalPrice 원래 가격
@@ -97,15 +200,15 @@ public class DiscountManager {
         if (player == null)
             return false;
 
-        // 할인 관련 권한이 하나라도 있는지 확인
-        for (int i = 5; i <= 100; i += 5) {
-            if (player.hasPermission("economyshop.discount." + i)) {
-                return true;
-            }
-        }
+        return getDiscountRate(player, null) > 0;
+    }
+
+    /**
+     * 할인 등급 (권한 노드와 할인율)
+     */
+    private record Tier(String permission, double rate) {
+    }
 
-        return player.hasPermission("economyshop.discount.vip")
-                || player.hasPermission("economyshop.discount.mvp")
-                || player.hasPermission("economyshop.discount.premium");
+    private record CachedRate(double rate, long expiresAt) {
     }
 }
@@ -7,7 +7,11 @@ import me.antigravity.economyshop.economy.ItemEconomyProvider;
 import me.antigravity.economyshop.economy.PlayerPointsProvider;
 import me.antigravity.economyshop.economy.VaultProvider;
 import net.milkbowl.vault.economy.Economy;
+import org.bukkit.ChatColor;
 import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -43,17 +47,8 @@ public class EconomyManager {
         ExpProvider expProvider = new ExpProvider(plugin);
         registerProvider(expProvider);
 
-        // 아이템 기반 경제 (에메랄드)
-        ItemEconomyProvider emeraldProvider = new ItemEconomyProvider(plugin, Material.EMERALD, "에메랄드");
-        registerProvider(emeraldProvider);
-
-        // 아이템 기반 경제 (금괴)
-        ItemEconomyProvider goldProvider = new ItemEconomyProvider(plugin, Material.GOLD_INGOT, "금괴");
-        providers.put("Item:GOLD_INGOT", goldProvider);
-
-        // 아이템 기반 경제 (다이아몬드)
-        ItemEconomyProvider diamondProvider = new ItemEconomyProvider(plugin, Material.DIAMOND, "다이아몬드");
-        providers.put("Item:DIAMOND", diamondProvider);
+        // 아이템 기반 경제 (config.yml의 item-currencies)
+        registerItemCurrencies();
 
         // config에서 기본 경제 시스템 로드
         defaultProvider = plugin.getConfigManager().getMainConfig().getString("default-economy", "Vault");
@@ -61,6 +56,61 @@ public class EconomyManager {
         plugin.getLogger().info("등록된 경제 시스템: " + String.join(", ", providers.keySet()));
     }
 
+    /**
+     * config.yml의 item-currencies 섹션에 정의된 아이템 화폐를 등록합니다.
+     * 섹션이 없으면 에메랄드, 금괴, 다이아몬드를 등록합니다.
+     *
+     * 설정 예시:
+     * item-currencies:
+     *   RUBY:
+     *     material: "PAPER"
+     *     name: "루비"
+     *     custom-model-data: 1001   # 선택
+     *     display-name: "&c루비"     # 선택
+     */
+    private void registerItemCurrencies() {
+        ConfigurationSection currencies = plugin.getConfigManager().getMainConfig()
+                .getConfigurationSection("item-currencies");
+        if (currencies == null) {
+            registerProvider(new ItemEconomyProvider(plugin, Material.EMERALD, "에메랄드"));
+            registerProvider(new ItemEconomyProvider(plugin, Material.GOLD_INGOT, "금괴"));
+            registerProvider(new ItemEconomyProvider(plugin, Material.DIAMOND, "다이아몬드"));
+            return;
+        }
+
+        for (String id : currencies.getKeys(false)) {
+            ConfigurationSection currency = currencies.getConfigurationSection(id);
+            if (currency == null)
+                continue;
+
+            Material material = Material.matchMaterial(currency.getString("material", id));
+            if (material == null || material.isAir()) {
+                plugin.getLogger().warning("아이템 화폐 [" + id + "]의 material이 올바르지 않습니다.");
+                continue;
+            }
+            String name = currency.getString("name", id);
+
+            if (!currency.contains("custom-model-data") && !currency.contains("display-name")) {
+                registerProvider(new ItemEconomyProvider(plugin, id, new ItemStack(material), name));
+                continue;
+            }
+
+            ItemStack template = new ItemStack(material);
+            ItemMeta meta = template.getItemMeta();
+            if (meta != null) {
+                if (currency.contains("custom-model-data")) {
+                    meta.setCustomModelData(currency.getInt("custom-model-data"));
+                }
+                if (currency.contains("display-name")) {
+                    meta.setDisplayName(ChatColor.translateAlternateColorCodes('&',
+                            currency.getString("display-name")));
+                }
+                template.setItemMeta(meta);
+            }
+            registerProvider(new ItemEconomyProvider(plugin, id, template, name));
+        }
+    }
+
     /**
      * Provider를 등록합니다.
      */
@@ -103,22 +103,82 @@ public class GUIManager {
 
         ShopSection section = holder.getSection();
         int page = holder.getPage();
-        List<ShopItem> allItems = section.getItems();
+        int pageStart = page * 45;
 
-        // 아이템 배치 (Slot 기반)
-        for (ShopItem item : allItems) {
-            int itemPage = item.getSlot() / 45;
-            if (itemPage == page) {
-                int slot = item.getSlot() % 45;
+        // 아이템 배치 (슬롯 인덱스로 현재 페이지만 조회)
+        for (int slot = 0; slot < 45; slot++) {
+            ShopItem item = section.getItemAt(pageStart + slot);
+            if (item != null) {
                 inv.setItem(slot, createDisplayItem(section, item));
             }
+            holder.markRendered(slot, item);
         }
+        holder.setRenderedPage(page);
+        holder.setRenderedStructureVersion(section.getStructureVersion());
 
         // 하단 네비게이션 바 렌더링 (슬롯 45~53)
         renderNavigationBar(holder);
     }
 
+    /**
+     * 열린 상점 페이지에서 가격/재고가 바뀐 슬롯만 다시 그립니다.
+     * 페이지가 바뀌었거나 아이템 배치가 바뀐 경우에는 전체를 다시 그립니다.
+     *
+     * @param holder GUI 홀더
+     */
+    public void refreshPage(ShopGUIHolder holder) {
+        ShopSection section = holder.getSection();
+        if (holder.getRenderedPage() != holder.getPage()
+                || holder.getRenderedStructureVersion() != section.getStructureVersion()) {
+            renderPage(holder);
+            return;
+        }
+
+        Inventory inv = holder.getInventory();
+        int pageStart = holder.getPage() * 45;
+
+        for (int slot = 0; slot < 45; slot++) {
+            ShopItem item = section.getItemAt(pageStart + slot);
+            if (holder.isRendered(slot, item)) {
+                continue; // 변경 없음
+            }
+            inv.setItem(slot, item != null ? createDisplayItem(section, item) : null);
+            holder.markRendered(slot, item);
+        }
+    }
+
     // ... (skip lines 121-150) ...
+    /**
+     * 섹션을 보고 있는 플레이어의 상점 GUI를 즉시 다시 그립니다. (상점 파일 핫 리로드 후)
+     * 섹션이 제거되었다면 GUI를 닫습니다.
+     *
+     * @param section 변경된 섹션
+     * @param removed 섹션이 제거되었는지 여부
+     */
+    public void refreshOpenViews(ShopSection section, boolean removed) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.getOpenInventory().getTopInventory().getHolder() instanceof ShopGUIHolder holder
+                    && holder.getSection() == section) {
+                if (removed) {
+                    player.closeInventory();
+                } else {
+                    renderPage(holder);
+                }
+            }
+        }
+    }
+
+    /**
+     * 열려 있는 메인 메뉴를 모두 다시 그립니다. (sections.yml 핫 리로드 후)
+     */
+    public void refreshOpenMainMenus() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.getOpenInventory().getTopInventory().getHolder() instanceof MainMenuGUIHolder holder) {
+                renderMainMenu(holder, player);
+            }
+        }
+    }
+
     /**
      * 네비게이션 바(이전/다음 페이지, 뒤로가기)를 렌더링합니다.
      */
@@ -4,16 +4,23 @@ import me.antigravity.economyshop.EconomyShop;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 글로벌 재고 시스템 매니저
  * 서버 전체에서 공유되는 아이템 재고를 관리합니다.
  * 한정 판매 이벤트나 희귀 아이템에 사용됩니다.
+ *
+ * 재고는 아이템별 AtomicLong 셀에 보관되며, 차감은 CAS 루프로 처리되어
+ * 여러 스레드에서 동시에 구매해도 재고보다 많이 팔리지 않습니다.
  */
 public class GlobalStockManager {
 
+    private static final String DB_KEY_SUFFIX = "_global";
+
     private final EconomyShop plugin;
-    private final Map<String, Long> globalStocks = new ConcurrentHashMap<>();
+    private final Map<String, StockCell> globalStocks = new ConcurrentHashMap<>();
 
     public GlobalStockManager(EconomyShop plugin) {
         this.plugin = plugin;
@@ -23,53 +30,80 @@ public class GlobalStockManager {
      * 글로벌 재고를 초기화합니다.
      */
     public void initializeStock(String itemId, long initialStock) {
-        globalStocks.put(itemId, initialStock);
+        StockCell cell = globalStocks.computeIfAbsent(itemId, StockCell::new);
+        cell.stock.set(initialStock);
         // DB에 저장
-        saveToDatabase(itemId, initialStock);
+        saveToDatabase(cell);
     }
 
     /**
      * 글로벌 재고를 조회합니다.
      */
     public long getStock(String itemId) {
-        return globalStocks.getOrDefault(itemId, -1L); // -1은 글로벌 재고가 없음을 의미
+        StockCell cell = globalStocks.get(itemId);
+        return cell != null ? cell.stock.get() : -1L; // -1은 글로벌 재고가 없음을 의미
     }
 
     /**
-     * 글로벌 재고를 차감합니다.
-     * 
-     * @return 성공 여부
+     * 글로벌 재고를 원자적으로 차감합니다.
+     *
+     * @return 성공 여부 (재고가 없거나 부족하면 false)
      */
-    public boolean decreaseStock(String itemId, int amount) {
-        Long currentStock = globalStocks.get(itemId);
-        if (currentStock == null || currentStock < amount) {
+    public boolean tryDecrement(String itemId, int amount) {
+        StockCell cell = globalStocks.get(itemId);
+        if (cell == null || !cell.tryTake(amount)) {
             return false; // 재고 부족
         }
 
-        long newStock = currentStock - amount;
-        globalStocks.put(itemId, newStock);
-
-        // DB에 저장 (비동기)
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            saveToDatabase(itemId, newStock);
-        });
-
+        // DB에 저장 (write-behind 버퍼)
+        saveToDatabase(cell);
         return true;
     }
 
+    /**
+     * 글로벌 재고를 차감합니다.
+     *
+     * @deprecated {@link #tryDecrement(String, int)}를 사용하세요.
+     */
+    @Deprecated
+    public boolean decreaseStock(String itemId, int amount) {
+        return tryDecrement(itemId, amount);
+    }
+
     /**
      * 글로벌 재고를 증가시킵니다 (관리자 명령어나 자동 재입고용).
      */
+    public void increment(String itemId, int amount) {
+        StockCell cell = globalStocks.computeIfAbsent(itemId, StockCell::new);
+        cell.stock.addAndGet(amount);
+        saveToDatabase(cell);
+    }
+
+    /**
+     * @deprecated {@link #increment(String, int)}를 사용하세요.
+     */
+    @Deprecated
     public void increaseStock(String itemId, int amount) {
-        long currentStock = globalStocks.getOrDefault(itemId, 0L);
-        long newStock = currentStock + amount;
-        globalStocks.put(itemId, newStock);
+        increment(itemId, amount);
+    }
 
-        saveToDatabase(itemId, newStock);
+    /**
+     * 재고를 미리 확보합니다. 확보된 수량은 즉시 다른 구매자에게서 빠지며,
+     * 결제가 성공하면 {@link Reservation#commit()}, 실패하면 {@link Reservation#rollback()}을 호출해야 합니다.
+     *
+     * @return 확보에 성공한 예약, 재고가 없거나 부족하면 null
+     */
+    public Reservation reserve(String itemId, int amount) {
+        StockCell cell = globalStocks.get(itemId);
+        if (cell == null || !cell.tryTake(amount)) {
+            return null;
+        }
+        return new Reservation(cell, amount);
     }
 
     /**
      * 재고가 충분한지 확인합니다.
+     * 확인과 차감 사이에 다른 구매가 끼어들 수 있으므로, 실제 차감은 tryDecrement 또는 reserve를 사용해야 합니다.
      */
     public boolean hasStock(String itemId, int amount) {
         long stock = getStock(itemId);
@@ -79,19 +113,26 @@ public class GlobalStockManager {
     /**
      * 글로벌 재고를 데이터베이스에 저장합니다.
      */
-    private void saveToDatabase(String itemId, long stock) {
-        // DatabaseManager에 global_stocks 테이블 관련 메서드가 있다고 가정
-        // 또는 dynamic_prices 테이블을 재사용
-        plugin.getDatabaseManager().saveDynamicPrice(itemId + "_global", stock);
+    private void saveToDatabase(StockCell cell) {
+        // dynamic_prices 테이블을 재사용 (item_id + "_global")
+        plugin.getDatabaseManager().queueDynamicPrice(cell.dbKey, cell.stock.get());
     }
 
     /**
      * 데이터베이스에서 글로벌 재고를 로드합니다.
      */
     public void loadFromDatabase() {
-        // DB에서 모든 글로벌 재고 로드
-        // 구현은 DatabaseManager의 구조에 따라 달라질 수 있음
-        plugin.getLogger().info("글로벌 재고 데이터 로드 완료");
+        int loaded = 0;
+        for (Map.Entry<String, Long> entry : plugin.getDatabaseManager().loadAllDynamicStocks().entrySet()) {
+            String key = entry.getKey();
+            if (!key.endsWith(DB_KEY_SUFFIX)) {
+                continue;
+            }
+            String itemId = key.substring(0, key.length() - DB_KEY_SUFFIX.length());
+            globalStocks.computeIfAbsent(itemId, StockCell::new).stock.set(entry.getValue());
+            loaded++;
+        }
+        plugin.getLogger().info("글로벌 재고 데이터 로드 완료 (" + loaded + "건)");
     }
 
     /**
@@ -101,4 +142,69 @@ public class GlobalStockManager {
         globalStocks.clear();
         plugin.getLogger().info("모든 글로벌 재고가 리셋되었습니다.");
     }
+
+    /**
+     * 아이템 하나의 재고 셀. DB 키를 미리 만들어 두어 거래마다 문자열을 생성하지 않습니다.
+     */
+    private static final class StockCell {
+        private final AtomicLong stock = new AtomicLong();
+        private final String dbKey;
+
+        private StockCell(String itemId) {
+            this.dbKey = itemId + DB_KEY_SUFFIX;
+        }
+
+        /**
+         * 재고가 충분할 때만 CAS로 차감합니다.
+         */
+        private boolean tryTake(int amount) {
+            if (amount <= 0) {
+                return amount == 0;
+            }
+            long current;
+            do {
+                current = stock.get();
+                if (current < amount) {
+                    return false;
+                }
+            } while (!stock.compareAndSet(current, current - amount));
+            return true;
+        }
+    }
+
+    /**
+     * 확보된 재고 예약. commit 또는 rollback 중 처음 호출된 하나만 적용됩니다.
+     */
+    public final class Reservation {
+        private final StockCell cell;
+        private final int amount;
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+
+        private Reservation(StockCell cell, int amount) {
+            this.cell = cell;
+            this.amount = amount;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        /**
+         * 예약을 확정하고 변경된 재고를 저장합니다.
+         */
+        public void commit() {
+            if (settled.compareAndSet(false, true)) {
+                saveToDatabase(cell);
+            }
+        }
+
+        /**
+         * 예약을 취소하고 확보했던 수량을 재고로 되돌립니다.
+         */
+        public void rollback() {
+            if (settled.compareAndSet(false, true)) {
+                cell.stock.addAndGet(amount);
+            }
+        }
+    }
 }
@@ -6,6 +6,9 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 public class LangManager {
 
@@ -24,6 +27,13 @@ public class LangManager {
             plugin.saveResource("messages.yml", false);
         }
         this.messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
+
+        // 이전 버전에서 저장된 messages.yml에 없는 키는 플러그인에 포함된 기본 메시지를 사용
+        InputStream defaults = plugin.getResource("messages.yml");
+        if (defaults != null) {
+            messagesConfig.setDefaults(YamlConfiguration.loadConfiguration(
+                    new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+        }
     }
 
     public String getMessage(String path) {
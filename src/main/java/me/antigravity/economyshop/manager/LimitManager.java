@@ -1,41 +1,54 @@
 package me.antigravity.economyshop.manager;
 
 import me.antigravity.economyshop.EconomyShop;
-import java.util.HashMap;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LimitManager {
 
     private final EconomyShop plugin;
     // UUID -> (ItemID -> Amount)
-    private final Map<UUID, Map<String, Integer>> playerDailyLimits = new HashMap<>();
+    // 키가 존재하면 해당 플레이어의 오늘 기록 전체가 미리 로드된 상태이므로, 없는 아이템은 0회로 간주합니다.
+    private final Map<UUID, Map<String, Integer>> playerDailyLimits = new ConcurrentHashMap<>();
+
+    // 오프라인 플레이어(PAPI 등) 조회용 캐시: UUID -> 조회 결과 (일정 시간마다 비동기로 갱신)
+    private final Map<UUID, OfflineUsage> offlineUsage = new ConcurrentHashMap<>();
+    private static final long OFFLINE_CACHE_MILLIS = 60_000L;
+
+    // 비동기 로드가 진행 중인 UUID (같은 플레이어를 중복 조회하지 않도록)
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+
+    // 미리 로드되지 않아 DB를 직접 조회한 횟수 (정상 상황에서는 0이어야 함)
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     public LimitManager(EconomyShop plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * DB에서 플레이어의 제한 정보를 로드합니다. (접속 시 호출)
+     * DB에서 플레이어의 오늘 제한 정보를 한 번의 쿼리로 모두 로드합니다.
+     * AsyncPlayerPreLoginEvent 등 비동기 스레드에서 호출되어야 합니다.
      */
     public void loadLimits(UUID uuid) {
-        // 비동기로 처리할지는 호출부에서 결정하거나 여기서 runTaskAsynchronously 사용
-        // 현재 구조상 DB 매니저가 connection을 따오므로, ShopManager 등에서 미리 로드하는 것이 좋음
-        // 여기서는 필요할 때 로드하는 방식(Lazy Load) 또는 접속 시 전체 로드를 가정
-        // 성능을 위해, 접속 시 '오늘' 날짜의 데이터만 로드하여 메모리에 캐싱합니다.
-
-        // 이 예제에서는 단순화를 위해 메모리 맵만 초기화하고,
-        // 실제 값은 getOrDefault로 처리하되, 영구 저장이 필요하면
-        // recordPurchase 시 DB에 즉시 저장하는 방식을 사용합니다.
-        // *읽기*의 경우, 접속 시 DB에서 읽어와야 합니다.
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            // 실제 구현: 모든 아이템에 대해 쿼리하는 것은 비효율적이므로,
-            // SELECT * FROM player_limits WHERE uuid = ? AND reset_date = CURRENT_DATE
-            // 와 같은 쿼리가 DatabaseManager에 필요함.
-            // 현재 DatabaseManager.loadPlayerLimit는 단일 아이템 조회용임.
-            // 일단은 메모리 캐시를 비워두고 필요시 DB조회 하거나,
-            // 접속 시 로드하는 로직을 추가해야 함.
-        });
+        Map<String, Integer> loaded = plugin.getDatabaseManager().loadPlayerLimits(uuid.toString());
+        playerDailyLimits.put(uuid, new ConcurrentHashMap<>(loaded));
+        offlineUsage.remove(uuid);
+    }
+
+    /**
+     * 이미 접속 중인 플레이어들의 제한 정보를 비동기로 로드합니다. (플러그인 리로드 대비)
+     */
+    public void loadOnlinePlayers() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            UUID uuid = player.getUniqueId();
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> loadLimits(uuid));
+        }
     }
 
     /**
@@ -45,63 +58,186 @@ public class LimitManager {
         playerDailyLimits.remove(uuid);
     }
 
+    /**
+     * 플레이어의 오늘 구매 기록이 메모리에 로드되어 있는지 확인합니다.
+     * 메인 스레드에서 로드되지 않은 플레이어를 조회하면 비동기 로드만 시작하고 구매는 거부되므로,
+     * 호출 측은 이 값으로 '한도 초과'와 '불러오는 중'을 구분합니다.
+     */
+    public boolean isLoaded(UUID uuid) {
+        return playerDailyLimits.containsKey(uuid);
+    }
+
     /**
      * 플레이어가 해당 아이템을 더 구매할 수 있는지 확인합니다.
+     * 기록을 아직 불러오지 못했다면 false를 반환합니다. ({@link #isLoaded(UUID)})
      */
     public boolean canPurchase(UUID uuid, String itemId, int limit) {
         if (limit <= 0)
             return true;
 
-        Map<String, Integer> playerMap = playerDailyLimits.computeIfAbsent(uuid, k -> new HashMap<>());
+        Map<String, Integer> playerMap = getUsageMap(uuid);
+        return playerMap != null && playerMap.getOrDefault(itemId, 0) < limit;
+    }
 
-        // 메모리에 없으면 DB에서 확인 (Lazy Loading)
-        if (!playerMap.containsKey(itemId)) {
-            // 동기적으로 DB 조회 (주의: 메인 스레드 멈춤 가능성 있음.
-            // 하지만 구매 클릭 시점이라 정확성이 중요함.
-            // 최적화를 위해 접속 시 미리 로드하는 것을 권장)
-            int dbCount = plugin.getDatabaseManager().loadPlayerLimit(uuid.toString(), itemId);
-            playerMap.put(itemId, dbCount);
+    /**
+     * 플레이어의 구매 기록을 추가하고 DB에 저장합니다.
+     */
+    public void recordPurchase(UUID uuid, String itemId, int amount) {
+        Map<String, Integer> playerMap = getUsageMap(uuid);
+        if (playerMap == null) {
+            plugin.getLogger().warning("구매 기록을 불러오지 못해 기록을 건너뜁니다: " + uuid + " / " + itemId);
+            return;
         }
+        int newVal = playerMap.merge(itemId, amount, Integer::sum);
 
-        int current = playerMap.getOrDefault(itemId, 0);
-        return current < limit;
+        // DB 저장 (write-behind 버퍼를 통해 일괄 처리)
+        plugin.getDatabaseManager().queuePlayerLimit(uuid.toString(), itemId, newVal);
     }
 
     /**
-     * 플레이어의 구매 기록을 추가하고 DB에 저장합니다.
+     * 구매 수량을 미리 확보합니다. 제한을 넘으면 아무것도 변경하지 않고 false를 반환합니다.
+     * 확보된 수량은 거래가 확정되면 {@link #commit(UUID, String)}, 실패하면 {@link #release(UUID, String, int)}로 처리합니다.
+     * 기록을 아직 불러오지 못했다면 아무것도 확보하지 않고 false를 반환합니다.
      */
-    public void recordPurchase(UUID uuid, String itemId, int amount) {
-        Map<String, Integer> playerMap = playerDailyLimits.computeIfAbsent(uuid, k -> new HashMap<>());
-        int current = playerMap.getOrDefault(itemId, 0);
-        int newVal = current + amount;
-        playerMap.put(itemId, newVal);
-
-        // 비동기 DB 저장
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getDatabaseManager().savePlayerLimit(uuid.toString(), itemId, newVal);
+    public boolean tryReserve(UUID uuid, String itemId, int amount, int limit) {
+        Map<String, Integer> playerMap = getUsageMap(uuid);
+        if (playerMap == null) {
+            return false;
+        }
+        if (limit <= 0) {
+            playerMap.merge(itemId, amount, Integer::sum);
+            return true;
+        }
+
+        boolean[] reserved = { false };
+        playerMap.compute(itemId, (key, current) -> {
+            int used = current == null ? 0 : current;
+            if (used + amount > limit) {
+                return current;
+            }
+            reserved[0] = true;
+            return used + amount;
         });
+        return reserved[0];
+    }
+
+    /**
+     * 확보했던 구매 수량을 되돌립니다.
+     */
+    public void release(UUID uuid, String itemId, int amount) {
+        Map<String, Integer> playerMap = playerDailyLimits.get(uuid);
+        if (playerMap != null) {
+            playerMap.computeIfPresent(itemId, (key, current) -> current - amount > 0 ? current - amount : null);
+        }
     }
 
     /**
-     * 현재 사용량을 조회합니다.
+     * 확보한 구매 수량을 확정하고 DB 저장을 예약합니다.
+     */
+    public void commit(UUID uuid, String itemId) {
+        Map<String, Integer> playerMap = playerDailyLimits.get(uuid);
+        if (playerMap != null) {
+            plugin.getDatabaseManager().queuePlayerLimit(uuid.toString(), itemId, playerMap.getOrDefault(itemId, 0));
+        }
+    }
+
+    /**
+     * 현재 사용량을 조회합니다. 아직 불러오지 못한 기록은 0으로 표시합니다.
      */
     public int getCurrentUsage(UUID uuid, String itemId) {
-        Map<String, Integer> playerMap = playerDailyLimits.computeIfAbsent(uuid, k -> new HashMap<>());
-        if (!playerMap.containsKey(itemId)) {
-            int dbCount = plugin.getDatabaseManager().loadPlayerLimit(uuid.toString(), itemId);
-            playerMap.put(itemId, dbCount);
+        Map<String, Integer> playerMap = playerDailyLimits.get(uuid);
+        if (playerMap != null) {
+            return playerMap.getOrDefault(itemId, 0);
+        }
+        // 오프라인 플레이어(PAPI 등)는 캐시에 올리지 않고 별도 조회 캐시를 사용합니다.
+        if (plugin.getServer().getPlayer(uuid) == null) {
+            return getOfflineUsage(uuid).getOrDefault(itemId, 0);
         }
-        return playerMap.getOrDefault(itemId, 0);
+        playerMap = getUsageMap(uuid);
+        return playerMap == null ? 0 : playerMap.getOrDefault(itemId, 0);
+    }
+
+    /**
+     * 캐시 미스 횟수를 반환합니다.
+     */
+    public long getCacheMissCount() {
+        return cacheMisses.get();
     }
 
     /**
      * 일일 제한을 초기화합니다. (자정에 실행될 스케줄러용)
      */
     public void resetLimits() {
-        playerDailyLimits.clear();
+        // 접속 중인 플레이어는 '오늘 기록 없음' 상태로 유지하여 다시 DB를 조회하지 않도록 합니다.
+        playerDailyLimits.replaceAll((uuid, map) -> new ConcurrentHashMap<>());
+        offlineUsage.clear();
         // DB에서도 오늘 날짜가 아닌 레코드는 무효하므로
         // 굳이 DELETE를 날리지 않아도 reset_date 체크로 걸러짐.
         // 필요하다면 배치를 통해 오래된 데이터를 정리하는 로직이 DatabaseManager에 있어야 함.
         plugin.getLogger().info("일일 구매 제한 기록이 초기화되었습니다.");
     }
+
+    /**
+     * 플레이어의 사용량 맵을 반환합니다.
+     * 접속 시 미리 로드되지 않은 경우를 캐시 미스로 집계하며, 비동기 스레드에서는 DB를 바로 조회하고
+     * 메인 스레드에서는 비동기 로드를 시작한 뒤 null을 반환합니다. (서버 틱을 멈추지 않도록)
+     */
+    private Map<String, Integer> getUsageMap(UUID uuid) {
+        Map<String, Integer> playerMap = playerDailyLimits.get(uuid);
+        if (playerMap != null) {
+            return playerMap;
+        }
+        long misses = cacheMisses.incrementAndGet();
+        plugin.getLogger().fine("구매 제한 캐시 미스: " + uuid + " (누적 " + misses + "회)");
+
+        if (plugin.getServer().isPrimaryThread()) {
+            if (loading.add(uuid)) {
+                plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                    try {
+                        loadMissing(uuid);
+                    } finally {
+                        loading.remove(uuid);
+                    }
+                });
+            }
+            return null;
+        }
+        return loadMissing(uuid);
+    }
+
+    /**
+     * DB 조회는 맵 잠금 밖에서 수행하고, 그 사이 다른 경로(접속 시 로드 등)가 먼저 넣은 값이 있으면 그 값을 사용합니다.
+     */
+    private Map<String, Integer> loadMissing(UUID uuid) {
+        Map<String, Integer> loaded = new ConcurrentHashMap<>(
+                plugin.getDatabaseManager().loadPlayerLimits(uuid.toString()));
+        // 조회 중 퇴장했다면 다시 올리지 않음 (메모리 누수 방지)
+        if (plugin.getServer().getPlayer(uuid) == null) {
+            return loaded;
+        }
+        Map<String, Integer> existing = playerDailyLimits.putIfAbsent(uuid, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 오프라인 플레이어의 사용량을 캐시에서 반환하고, 오래된 경우 비동기로 다시 조회합니다.
+     */
+    private Map<String, Integer> getOfflineUsage(UUID uuid) {
+        OfflineUsage cached = offlineUsage.get(uuid);
+        long now = System.currentTimeMillis();
+        if ((cached == null || now - cached.loadedAt() > OFFLINE_CACHE_MILLIS) && loading.add(uuid)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    Map<String, Integer> loaded = plugin.getDatabaseManager().loadPlayerLimits(uuid.toString());
+                    offlineUsage.put(uuid, new OfflineUsage(loaded, System.currentTimeMillis()));
+                } finally {
+                    loading.remove(uuid);
+                }
+            });
+        }
+        return cached == null ? Collections.emptyMap() : cached.usage();
+    }
+
+    private record OfflineUsage(Map<String, Integer> usage, long loadedAt) {
+    }
 }
@@ -2,63 +2,42 @@ package me.antigravity.economyshop.manager;
 
 import me.antigravity.economyshop.EconomyShop;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public class LogManager {
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final EconomyShop plugin;
-    private File logFile;
+    private TransactionJournal journal;
     private me.antigravity.economyshop.hook.DiscordHook discordHook;
 
     public LogManager(EconomyShop plugin) {
         this.plugin = plugin;
         this.discordHook = new me.antigravity.economyshop.hook.DiscordHook(plugin);
-        createLogFile();
-    }
-
-    private void createLogFile() {
-        File folder = new File(plugin.getDataFolder(), "logs");
-        if (!folder.exists()) {
-            folder.mkdirs();
-        }
-
-        // 날짜별 로그 파일 생성 (logs/2023-10-27.log)
-        String date = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE);
-        this.logFile = new File(folder, date + ".log");
-
-        if (!logFile.exists()) {
-            try {
-                logFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("로그 파일 생성 실패: " + e.getMessage());
-            }
+        if (plugin.getConfigManager().getMainConfig().getBoolean("enable-transaction-logs", true)) {
+            // 단일 쓰기 스레드가 logs/journal 아래의 바이너리 세그먼트에 기록
+            this.journal = new TransactionJournal(plugin, new File(plugin.getDataFolder(), "logs/journal"));
         }
     }
 
+    /**
+     * 일반 메시지를 저널에 기록합니다. (거래 내역 조회에는 포함되지 않음)
+     */
     public void log(String message) {
-        // 비동기로 파일 쓰기 (성능 저하 방지)
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-            String logMessage = "[" + timestamp + "] " + message;
-
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(logFile, true))) {
-                writer.write(logMessage);
-                writer.newLine();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        if (journal != null) {
+            journal.appendNote(message);
+        }
     }
 
     public void logTransaction(String player, String type, String item, int amount, double price) {
-        String msg = String.format("[TRANSACTION] Player: %s | Type: %s | Item: %s | Amount: %d | Total: %.2f",
-                player, type, item, amount, price);
-        log(msg);
+        if (journal != null) {
+            journal.append(player, type, item, amount, price);
+        }
 
         // Discord로 전송 (Embed 형식)
         if (discordHook != null) {
@@ -67,7 +46,7 @@ public class LogManager {
     }
 
     /**
-     * 로그 파일에서 거래 내역을 조회합니다.
+     * 거래 저널에서 거래 내역을 조회합니다.
      * 
      * @param targetName 조회할 플레이어 이름 (null이면 전체)
      * @param page       페이지 (1부터 시작)
@@ -75,53 +54,38 @@ public class LogManager {
      */
     public java.util.concurrent.CompletableFuture<java.util.List<String>> getTransactionLogs(String targetName,
             int page) {
-        return java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-            java.util.List<String> results = new java.util.ArrayList<>();
-            if (!logFile.exists()) {
-                return results;
-            }
-
-            try {
-                java.util.List<String> lines = java.nio.file.Files.readAllLines(logFile.toPath(),
-                        java.nio.charset.StandardCharsets.UTF_8);
-                java.util.Collections.reverse(lines); // 최신순 정렬
-
-                int count = 0;
-                int pageSize = 10;
-                int start = (page - 1) * pageSize;
-
-                for (String line : lines) {
-                    // 트랜잭션 로그만 필터링
-                    if (!line.contains("[TRANSACTION]")) {
-                        continue;
-                    }
-
-                    // 플레이어 필터링
-                    if (targetName != null && !line.contains("Player: " + targetName)) {
-                        continue;
-                    }
-
-                    if (count >= start && count < start + pageSize) {
-                        results.add(line);
-                    }
-                    count++;
+        if (journal == null) {
+            return java.util.concurrent.CompletableFuture.completedFuture(java.util.Collections.emptyList());
+        }
 
-                    if (count >= start + pageSize) {
-                        break;
-                    }
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
+        // 플레이어별 인덱스로 해당 페이지의 레코드만 읽음 (최신순)
+        return journal.query(targetName, page, 10).thenApply(records -> {
+            java.util.List<String> results = new java.util.ArrayList<>(records.size());
+            for (TransactionJournal.JournalRecord record : records) {
+                results.add(format(record));
             }
-
             return results;
         });
     }
 
+    private String format(TransactionJournal.JournalRecord record) {
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault())
+                .format(TIMESTAMP_FORMAT);
+        return String.format("[%s] [TRANSACTION] Player: %s | Type: %s | Item: %s | Amount: %d | Total: %.2f",
+                timestamp, record.player(), record.type(), record.item(), record.amount(), record.price());
+    }
+
+    public me.antigravity.economyshop.hook.DiscordHook getDiscordHook() {
+        return discordHook;
+    }
+
     /**
-     * LogManager 종료 시 DiscordHook 워커 스레드를 정리합니다.
+     * LogManager 종료 시 저널 쓰기 스레드와 DiscordHook 워커 스레드를 정리합니다.
      */
     public void shutdown() {
+        if (journal != null) {
+            journal.shutdown();
+        }
         if (discordHook != null) {
             discordHook.shutdown();
         }
@@ -1,9 +1,10 @@
 package me.antigravity.economyshop.manager;
 
 import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.economy.EconomyProvider;
 import me.antigravity.economyshop.gui.SellGUIHolder;
-import me.antigravity.economyshop.model.ShopItem;
-import me.antigravity.economyshop.model.ShopSection;
+import me.antigravity.economyshop.transaction.SellSettlement;
+import me.antigravity.economyshop.transaction.TransactionLine;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -18,6 +19,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class SellGUIManager implements Listener {
 
@@ -48,51 +50,45 @@ public class SellGUIManager implements Listener {
 
         Player player = (Player) event.getPlayer();
         Inventory inv = event.getInventory();
-        double totalEarnings = 0.0;
-        int soldCount = 0;
+        List<TransactionLine> lines = new ArrayList<>();
         List<ItemStack> unsoldItems = new ArrayList<>();
 
         for (ItemStack item : inv.getContents()) {
             if (item == null || item.getType() == Material.AIR)
                 continue;
 
-            // 판매 가능한 아이템인지 확인 (모든 상점 섹션 검색)
-            double price = -1.0;
-            ShopItem shopItem = findShopItem(item);
-
-            if (shopItem != null) {
-                price = shopItem.getCurrentSellPrice();
-                // 동적 가격 로직 처리 (재고 증가)
-                if (shopItem.isDynamicPricing()) {
-                    shopItem.setCurrentStock(
-                            Math.min(shopItem.getMaxStock(), shopItem.getCurrentStock() + item.getAmount()));
-                    // DB 저장 필요 시 비동기 처리 권장
-                    plugin.getDatabaseManager().saveDynamicPrice(shopItem.getId(), shopItem.getCurrentStock());
-                }
-            }
+            // 판매 가능한 아이템인지 확인 (판매 인덱스 조회)
+            SellIndex.Entry sellable = plugin.getShopManager().getSellIndex().find(item);
+            double price = sellable != null ? sellable.item().getCurrentSellPrice() : -1.0;
 
             if (price > 0) {
-                totalEarnings += price * item.getAmount();
-                soldCount += item.getAmount();
+                lines.add(new TransactionLine(sellable.section(), sellable.item(), item.getAmount(),
+                        price * item.getAmount(), item.clone()));
             } else {
                 unsoldItems.add(item);
             }
         }
 
-        // 정산
-        if (totalEarnings > 0) {
-            me.antigravity.economyshop.economy.EconomyProvider economy = plugin.getEconomyManager()
-                    .getDefaultProvider();
-            if (economy != null && economy.isAvailable()) {
-                economy.deposit(player, totalEarnings);
-                String msg = plugin.getLangManager().getMessage("shop.sell-success")
-                        .replace("{price}", economy.formatAmount(totalEarnings));
-                player.sendMessage(msg);
-            } else {
-                player.sendMessage("§c경제 시스템 오류: 사용 가능한 경제 시스템을 찾을 수 없습니다.");
+        // 정산: 경제 시스템별로 묶어 GUI에서 아이템 회수 → 재고 반영 → 입금
+        // (실패 시 회수한 아이템은 플레이어에게 반환)
+        List<TransactionLine> unavailable = new ArrayList<>();
+        Map<EconomyProvider, List<TransactionLine>> settlements = SellSettlement.groupByEconomy(plugin, lines,
+                unavailable);
+
+        if (!unavailable.isEmpty()) {
+            player.sendMessage("§c경제 시스템 오류: 사용 가능한 경제 시스템을 찾을 수 없습니다.");
+            for (TransactionLine line : unavailable) {
+                unsoldItems.add(line.stack());
             }
         }
 
+        settlements.forEach((economy, group) -> SellSettlement.settle(plugin, player, economy, group, inv,
+                "SELLGUI", ctx -> {
+                    String msg = plugin.getLangManager().getMessage("shop.sell-success")
+                            .replace("{price}", economy.formatAmount(ctx.getTotalPrice()));
+                    player.sendMessage(msg);
+                }));
+
         // 판매 불가 아이템 반환
         for (ItemStack unsold : unsoldItems) {
             player.getInventory().addItem(unsold).forEach((idx, drop) -> {
@@ -104,22 +100,4 @@ public class SellGUIManager implements Listener {
             player.sendMessage("§c판매할 수 없는 아이템 " + unsoldItems.size() + "종류를 돌려받았습니다.");
         }
     }
-
-    // 이 메소드는 성능상 최적화가 필요할 수 있음 (아이템 매칭을 위해 모든 상점 순회)
-    private ShopItem findShopItem(ItemStack target) {
-        for (ShopSection section : plugin.getShopManager().getSections().values()) {
-            for (ShopItem item : section.getItems()) {
-                // 재질과 데이터(내구도 등)만 비교하거나, HookManager를 통해 커스텀 아이템 비교
-                if (isSimilar(item.getItemStack(), target)) {
-                    return item;
-                }
-            }
-        }
-        return null;
-    }
-
-    private boolean isSimilar(ItemStack shopItem, ItemStack target) {
-        // 간단한 비교: 타입과 메타데이터
-        return shopItem.isSimilar(target);
-    }
 }
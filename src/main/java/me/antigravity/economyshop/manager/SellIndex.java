@@ -0,0 +1,163 @@
+package me.antigravity.economyshop.manager;
+
+import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.api.item.ItemRegistry;
+import me.antigravity.economyshop.model.ShopItem;
+import me.antigravity.economyshop.model.ShopSection;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 판매 가능한 아이템을 빠르게 찾기 위한 인덱스입니다.
+ * 상점 아이템을 {@link ItemRegistry#fingerprint(ItemStack)} 지문으로 분류하여,
+ * 인벤토리 슬롯마다 지문을 한 번 계산하고 지문이 같은 후보에 대해서만 전체 비교를 수행합니다.
+ *
+ * <p>
+ * 최초 조회 시 전체를 구축하고, 이후에는 아이템 추가/삭제/수정 시 해당 아이템만 갱신합니다.
+ * </p>
+ */
+public class SellIndex {
+
+    private final EconomyShop plugin;
+
+    private final Map<Long, List<Entry>> byFingerprint = new HashMap<>();
+    // ShopItem은 @Data라 가격 변경 시 hashCode가 바뀌므로 동일성 기준으로 관리
+    private final Map<ShopItem, Entry> entries = new IdentityHashMap<>();
+
+    private boolean built = false;
+
+    public SellIndex(EconomyShop plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 대상 아이템과 일치하는 판매 가능한 상점 아이템을 찾습니다.
+     *
+     * @return 일치하는 항목, 없으면 null
+     */
+    public Entry find(ItemStack target) {
+        if (target == null) {
+            return null;
+        }
+        return find(target, plugin.getApi().getItemRegistry().fingerprint(target));
+    }
+
+    /**
+     * 이미 계산한 지문으로 판매 가능한 상점 아이템을 찾습니다.
+     *
+     * @param target      대상 아이템
+     * @param fingerprint 대상 아이템의 지문
+     * @return 일치하는 항목, 없으면 null
+     */
+    public synchronized Entry find(ItemStack target, long fingerprint) {
+        if (target == null) {
+            return null;
+        }
+        ensureBuilt();
+
+        List<Entry> candidates = byFingerprint.get(fingerprint);
+        if (candidates == null) {
+            return null;
+        }
+
+        // 지문이 같은 후보만 전체 비교로 확인 (해시 충돌 대비)
+        ItemRegistry registry = plugin.getApi().getItemRegistry();
+        for (Entry entry : candidates) {
+            ShopItem item = entry.item();
+            if (item.getSellPrice() <= 0)
+                continue; // 판매 불가 아이템
+
+            if (registry.matches(item.getItemStack(), target)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 아이템을 인덱스에 추가합니다. 이미 있으면 위치를 다시 계산합니다.
+     */
+    public synchronized void add(ShopSection section, ShopItem item) {
+        if (!built) {
+            return; // 다음 조회 시 전체 구축에 포함됨
+        }
+        removeEntry(item);
+        addEntry(section, item);
+    }
+
+    /**
+     * 아이템 정보(아이템 스택, 가격 등)가 바뀌었을 때 인덱스를 갱신합니다.
+     */
+    public synchronized void update(ShopSection section, ShopItem item) {
+        item.invalidateFingerprint();
+        add(section, item);
+    }
+
+    /**
+     * 아이템을 인덱스에서 제거합니다.
+     */
+    public synchronized void remove(ShopItem item) {
+        if (built) {
+            removeEntry(item);
+        }
+    }
+
+    /**
+     * 인덱스를 비웁니다. 다음 조회 시 전체 섹션으로부터 다시 구축됩니다.
+     * (상점 리로드, 섹션 등록/해제 시 호출)
+     */
+    public synchronized void invalidate() {
+        byFingerprint.clear();
+        entries.clear();
+        built = false;
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        for (ShopSection section : plugin.getShopManager().getSections().values()) {
+            for (ShopItem item : section.getItems()) {
+                addEntry(section, item);
+            }
+        }
+        built = true;
+    }
+
+    private void addEntry(ShopSection section, ShopItem item) {
+        long fingerprint = item.getFingerprint(plugin.getApi().getItemRegistry());
+        if (fingerprint == 0L) {
+            return; // 아이템 스택 없음
+        }
+
+        Entry entry = new Entry(section, item, fingerprint);
+        byFingerprint.computeIfAbsent(fingerprint, k -> new ArrayList<>()).add(entry);
+        entries.put(item, entry);
+    }
+
+    private void removeEntry(ShopItem item) {
+        Entry entry = entries.remove(item);
+        if (entry == null) {
+            return;
+        }
+
+        List<Entry> bucket = byFingerprint.get(entry.fingerprint());
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                byFingerprint.remove(entry.fingerprint());
+            }
+        }
+    }
+
+    /**
+     * 인덱스 항목 (섹션, 아이템, 아이템 지문)
+     */
+    public record Entry(ShopSection section, ShopItem item, long fingerprint) {
+    }
+}
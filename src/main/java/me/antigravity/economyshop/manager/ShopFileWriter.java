@@ -0,0 +1,231 @@
+package me.antigravity.economyshop.manager;
+
+import me.antigravity.economyshop.EconomyShop;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 상점 YAML 파일과 sections.yml의 저장 큐입니다.
+ *
+ * <p>
+ * 같은 파일에 대한 저장 요청은 일정 시간(debounce) 동안 모아 한 번만 저장합니다.
+ * 저장 시점에 메인 스레드에서 설정 값을 복사한 스냅샷을 만들고, YAML 변환과 파일 쓰기는
+ * 하나의 전용 스레드가 요청 순서대로 처리하므로 이전 내용이 나중에 덮어쓰는 일이 없습니다.
+ * 파일은 임시 파일에 쓴 뒤 원자적으로 교체되어, 저장 도중 서버가 종료되어도 잘린 파일이 남지 않습니다.
+ * </p>
+ */
+public class ShopFileWriter {
+
+    private final EconomyShop plugin;
+    private final long delayTicks;
+    private final ExecutorService writer;
+
+    // 저장 대기 중인 파일 -> 최신 설정 (메인 스레드에서만 접근)
+    private final Map<File, FileConfiguration> pending = new HashMap<>();
+    // 종료 후 요청된 저장은 스케줄러를 쓸 수 없으므로 바로 기록
+    private boolean closed;
+
+    public ShopFileWriter(EconomyShop plugin, long delayMillis) {
+        this.plugin = plugin;
+        this.delayTicks = Math.max(1L, delayMillis / 50L);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EconomyShop-FileWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 설정을 파일에 저장하도록 예약합니다. 대기 시간 안에 같은 파일이 다시 요청되면 한 번만 저장됩니다.
+     *
+     * @param file   저장할 파일
+     * @param config 저장할 설정 (저장 시점의 내용이 기록됨)
+     */
+    public synchronized void save(File file, FileConfiguration config) {
+        if (closed) {
+            write(file, Snapshot.of(config));
+            return;
+        }
+        if (pending.put(file, config) == null) {
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> flush(file), delayTicks);
+        }
+    }
+
+    /**
+     * 대기 중인 파일의 스냅샷을 만들어 쓰기 스레드로 넘깁니다. (메인 스레드)
+     */
+    private synchronized void flush(File file) {
+        FileConfiguration config = pending.remove(file);
+        if (config != null) {
+            Snapshot snapshot = Snapshot.of(config);
+            writer.execute(() -> write(file, snapshot));
+        }
+    }
+
+    /**
+     * 대기 중인 모든 저장을 즉시 기록하고 끝날 때까지 기다립니다. (파일을 다시 읽기 전, 메인 스레드)
+     */
+    public void flushAll() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            for (File file : new ArrayList<>(pending.keySet())) {
+                flush(file);
+            }
+        }
+
+        try {
+            writer.submit(() -> {
+            }).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("상점 파일 저장이 시간 내에 끝나지 않았습니다.");
+        }
+    }
+
+    /**
+     * 대기 중인 모든 저장을 즉시 처리하고 쓰기 스레드가 끝날 때까지 기다립니다. (플러그인 비활성화 시)
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+            for (File file : new ArrayList<>(pending.keySet())) {
+                flush(file);
+            }
+        }
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("상점 파일 저장이 시간 내에 끝나지 않았습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(File file, Snapshot snapshot) {
+        byte[] data = snapshot.toYaml().getBytes(StandardCharsets.UTF_8);
+        plugin.getShopManager().markOwnWrite(file, data);
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("비동기 저장 중 오류 발생 (" + file.getName() + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * 저장 시점의 설정 값과 주석을 복사한 스냅샷 (이후 원본이 바뀌어도 영향받지 않음)
+     */
+    private record Snapshot(Map<String, Object> values, List<String> header, Map<String, List<String>> comments,
+            Map<String, List<String>> inlineComments) {
+
+        static Snapshot of(FileConfiguration config) {
+            Map<String, List<String>> comments = new HashMap<>();
+            Map<String, List<String>> inlineComments = new HashMap<>();
+            for (String path : config.getKeys(true)) {
+                List<String> comment = config.getComments(path);
+                if (!comment.isEmpty()) {
+                    comments.put(path, new ArrayList<>(comment));
+                }
+                List<String> inline = config.getInlineComments(path);
+                if (!inline.isEmpty()) {
+                    inlineComments.put(path, new ArrayList<>(inline));
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> values = (Map<String, Object>) copy(config);
+            return new Snapshot(values, new ArrayList<>(config.options().getHeader()), comments, inlineComments);
+        }
+
+        private static Object copy(Object value) {
+            if (value instanceof ConfigurationSection section) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (String key : section.getKeys(false)) {
+                    map.put(key, copy(section.get(key)));
+                }
+                return map;
+            }
+            if (value instanceof Map<?, ?> map) {
+                Map<Object, Object> copied = new LinkedHashMap<>();
+                map.forEach((key, element) -> copied.put(key, copy(element)));
+                return copied;
+            }
+            if (value instanceof List<?> list) {
+                List<Object> copied = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    copied.add(copy(element));
+                }
+                return copied;
+            }
+            if (value instanceof ItemStack item) {
+                return item.clone();
+            }
+            return value; // 문자열, 숫자 등 불변 값
+        }
+
+        /**
+         * 스냅샷을 YAML 문자열로 변환합니다. (쓰기 스레드)
+         */
+        String toYaml() {
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.options().setHeader(header);
+            apply(yaml, values);
+            comments.forEach(yaml::setComments);
+            inlineComments.forEach(yaml::setInlineComments);
+            return yaml.saveToString();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void apply(ConfigurationSection target, Map<String, Object> values) {
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                if (entry.getValue() instanceof LinkedHashMap<?, ?> map && isSection(map)) {
+                    apply(target.createSection(entry.getKey()), (Map<String, Object>) map);
+                } else {
+                    target.set(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private static boolean isSection(Map<?, ?> map) {
+            for (Object key : map.keySet()) {
+                if (!(key instanceof String)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -12,58 +12,363 @@ import org.bukkit.inventory.ItemStack;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ShopManager {
 
+    // 상점 파일을 병렬로 읽을 최대 스레드 수
+    private static final int MAX_LOADER_THREADS = 4;
+
     private final EconomyShop plugin;
-    private final Map<String, ShopSection> sections = new HashMap<>();
+    // 리로드 시 새로 만든 맵으로 통째로 교체 (비동기 작업은 항상 완성된 맵을 봄)
+    private volatile Map<String, ShopSection> sections = new HashMap<>();
+    private final SellIndex sellIndex;
+    // 파싱된 상점 파일 캐시 (설정에서 끄면 null)
+    private final CatalogCache catalogCache;
+    // 플러그인이 직접 저장한 파일의 내용 해시 (파일 감시에서 자신의 저장을 무시하기 위함)
+    private final Map<java.nio.file.Path, byte[]> ownWrites = new java.util.concurrent.ConcurrentHashMap<>();
+    // 상점 파일 저장 큐 (파일별로 모아서 순서대로 저장)
+    private final ShopFileWriter fileWriter;
+
+    // 섹션 구성이 바뀔 때마다 증가 (리로드, API를 통한 섹션 등록/해제)
+    private final AtomicInteger catalogGeneration = new AtomicInteger();
 
     public ShopManager(EconomyShop plugin) {
         this.plugin = plugin;
+        this.sellIndex = new SellIndex(plugin);
+        this.fileWriter = new ShopFileWriter(plugin,
+                plugin.getConfigManager().getMainConfig().getLong("shop-save-delay", 500L));
+
+        if (plugin.getConfigManager().getMainConfig().getBoolean("catalog-cache", true)) {
+            this.catalogCache = new CatalogCache(plugin, new File(plugin.getDataFolder(), "cache/catalog.bin"));
+            this.catalogCache.load();
+        } else {
+            this.catalogCache = null;
+        }
     }
 
     public void loadShops() {
-        sections.clear();
+        // 상점 파일을 디스크에서 다시 읽으므로 저장 대기 중인 편집 내용을 먼저 기록
+        fileWriter.flushAll();
+
+        FileConfiguration sectionsConfig = plugin.getConfigManager().getSectionsConfig();
+        if (sectionsConfig == null) {
+            sections = new HashMap<>();
+            markCatalogChanged();
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        // 동적 재고를 한 번에 미리 로드 (아이템별 개별 쿼리 방지)
+        Map<String, Long> storedStocks = plugin.getDatabaseManager().loadAllDynamicStocks();
+        // 전역 동적 경제 설정 확인
+        boolean globalDynamic = plugin.getConfigManager().isGlobalDynamicPricingEnabled();
+
+        if (catalogCache != null) {
+            catalogCache.beginScan();
+        }
+
+        // 1. 섹션 정보는 메인 스레드에서 읽고, 상점 파일 로드는 풀에서 병렬로 처리
+        List<ShopSection> loadedSections = new ArrayList<>();
+        List<Future<ParsedFile>> futures = new ArrayList<>();
+        int poolSize = Math.max(1, Math.min(MAX_LOADER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        ExecutorService loader = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "EconomyShop-ShopLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (String key : sectionsConfig.getKeys(false)) {
+                ConfigurationSection sectionData = sectionsConfig.getConfigurationSection(key);
+                if (sectionData == null)
+                    continue;
+
+                ShopSection section = buildSection(key, sectionData);
+                loadedSections.add(section);
+                futures.add(loader.submit(() -> loadItemsForSection(section, storedStocks, globalDynamic)));
+            }
+
+            // 2. 모든 파일이 끝날 때까지 기다린 뒤, 캐시 갱신(아이템 직렬화)은 메인 스레드에서 처리
+            LoadStats stats = new LoadStats();
+            for (int i = 0; i < futures.size(); i++) {
+                ParsedFile parsed = waitFor(futures.get(i), loadedSections.get(i));
+                if (parsed == null)
+                    continue;
+
+                if (parsed.fromCache()) {
+                    stats.cachedFiles++;
+                    stats.cachedNanos += parsed.nanos();
+                } else {
+                    stats.parsedFiles++;
+                    stats.parsedNanos += parsed.nanos();
+                    if (catalogCache != null) {
+                        catalogCache.store(parsed.file(), parsed.definitions());
+                    }
+                }
+            }
+
+            if (catalogCache != null) {
+                catalogCache.save();
+                plugin.getLogger().info("상점 파일 로드 시간: 캐시 " + stats.cachedFiles + "개 " + stats.cachedNanos / 1_000_000L
+                        + "ms, YAML " + stats.parsedFiles + "개 " + stats.parsedNanos / 1_000_000L + "ms (스레드 "
+                        + poolSize + "개)");
+            }
+        } finally {
+            loader.shutdownNow();
+        }
+
+        // 3. 완성된 섹션을 한 번에 교체 (로드 도중에도 이전 섹션으로 계속 조회 가능)
+        Map<String, ShopSection> loaded = new HashMap<>();
+        for (ShopSection section : loadedSections) {
+            loaded.put(section.getId(), section);
+        }
+        sections = loaded;
+        markCatalogChanged();
+
+        // 새로 로드된 아이템 기준으로 가격 복구 대상을 다시 확인
+        if (plugin.getPriceRestorationTask() != null) {
+            plugin.getPriceRestorationTask().requestRescan();
+        }
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000L;
+        plugin.getLogger().info(loaded.size() + "개의 상점 섹션을 로드했습니다. (저장된 동적 재고 " + storedStocks.size()
+                + "건, " + elapsedMs + "ms)");
+    }
+
+    private ShopSection buildSection(String key, ConfigurationSection sectionData) {
+        return ShopSection.builder()
+                .id(key)
+                .displayName(sectionData.getString("display-name", key))
+                .icon(new ItemStack(Material.valueOf(sectionData.getString("material", "STONE"))))
+                .slot(sectionData.getInt("slot", 0))
+                .permission(sectionData.getString("permission"))
+                .economy(sectionData.getString("economy", "Vault"))
+                // 섹션별 동적 경제 설정 로드 (기본값: true)
+                .dynamicPricing(sectionData.getBoolean("dynamic-pricing", true))
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * sections.yml만 다시 읽어 섹션 정보를 갱신합니다. (메인 스레드, 파일 감시에 의한 핫 리로드)
+     * 기존 섹션은 같은 인스턴스를 유지한 채 표시 정보만 바꾸고, 동적 경제 설정이 바뀐 섹션만 상점 파일을 다시 읽습니다.
+     * 새 섹션은 상점 파일을 읽어 추가하고, 사라진 섹션은 제거합니다.
+     */
+    public void reloadSections() {
+        plugin.getConfigManager().reloadSectionsConfig();
         FileConfiguration sectionsConfig = plugin.getConfigManager().getSectionsConfig();
         if (sectionsConfig == null)
             return;
 
+        Map<String, ShopSection> current = sections;
+        Map<String, ShopSection> updated = new HashMap<>();
+        boolean globalDynamic = plugin.getConfigManager().isGlobalDynamicPricingEnabled();
+        Map<String, Long> storedStocks = null;
+        boolean structureChanged = false;
+
         for (String key : sectionsConfig.getKeys(false)) {
             ConfigurationSection sectionData = sectionsConfig.getConfigurationSection(key);
             if (sectionData == null)
                 continue;
 
-            ShopSection section = ShopSection.builder()
-                    .id(key)
-                    .displayName(sectionData.getString("display-name", key))
-                    .icon(new ItemStack(Material.valueOf(sectionData.getString("material", "STONE"))))
-                    .slot(sectionData.getInt("slot", 0))
-                    .permission(sectionData.getString("permission"))
-                    .economy(sectionData.getString("economy", "Vault"))
-                    .dynamicPricing(sectionData.getBoolean("dynamic-pricing", true)) // 섹션별 동적 경제 설정 로드 (기본값: true)
-                    .items(new ArrayList<>())
-                    .build();
+            ShopSection loaded = buildSection(key, sectionData);
+            ShopSection existing = current.get(key);
+            if (existing == null) {
+                // 새 섹션: 저장된 동적 재고는 필요할 때 한 번만 조회
+                if (storedStocks == null) {
+                    storedStocks = plugin.getDatabaseManager().loadAllDynamicStocks();
+                }
+                ParsedFile parsed = loadItemsForSection(loaded, storedStocks, globalDynamic);
+                storeParsed(parsed);
+                updated.put(key, loaded);
+                structureChanged = true;
+                continue;
+            }
+
+            existing.setDisplayName(loaded.getDisplayName());
+            existing.setIcon(loaded.getIcon());
+            existing.setSlot(loaded.getSlot());
+            existing.setPermission(loaded.getPermission());
+            existing.setEconomy(loaded.getEconomy());
+            if (existing.isDynamicPricing() != loaded.isDynamicPricing()) {
+                existing.setDynamicPricing(loaded.isDynamicPricing());
+                reloadSectionFile(existing);
+            }
+            updated.put(key, existing);
+        }
+
+        if (!structureChanged && updated.size() == current.size()) {
+            return; // 섹션 추가/삭제 없음
+        }
+
+        sections = updated;
+        markCatalogChanged();
+        // 제거된 섹션의 아이템이 복구 스케줄에 남아 DB 재고를 덮어쓰지 않도록 전체를 다시 확인
+        requestRestorationRescan();
+        if (catalogCache != null) {
+            catalogCache.save();
+        }
+        plugin.getLogger().info("sections.yml 변경 반영: 섹션 " + current.size() + "개 -> " + updated.size() + "개");
+    }
+
+    /**
+     * 섹션의 상점 파일 하나만 다시 읽어 기존 아이템과 비교합니다. (메인 스레드, 파일 감시에 의한 핫 리로드)
+     * 설정이 바뀌지 않은 아이템은 기존 인스턴스를 그대로 유지하므로 표시 캐시와 메모리의 재고가 보존되며,
+     * 설정이 바뀐 아이템도 ID가 같으면 현재 재고를 이어받습니다.
+     *
+     * @return 추가/변경/삭제된 아이템 수
+     */
+    public int reloadSectionFile(ShopSection section) {
+        ShopSection loaded = ShopSection.builder()
+                .id(section.getId())
+                .dynamicPricing(section.isDynamicPricing())
+                .items(new ArrayList<>())
+                .build();
+        ParsedFile parsed = loadItemsForSection(loaded, Map.of(),
+                plugin.getConfigManager().isGlobalDynamicPricingEnabled());
+        storeParsed(parsed);
+        if (catalogCache != null) {
+            catalogCache.save();
+        }
+
+        Map<String, ShopItem> previous = new HashMap<>();
+        for (ShopItem item : section.getItems()) {
+            previous.put(item.getId(), item);
+        }
+
+        List<ShopItem> merged = new ArrayList<>(loaded.getItems().size());
+        List<ShopItem> added = new ArrayList<>();
+        for (ShopItem item : loaded.getItems()) {
+            ShopItem old = previous.remove(item.getId());
+            if (old != null && old.getSourceHash() == item.getSourceHash()
+                    && old.isDynamicPricing() == item.isDynamicPricing()) {
+                // 설정이 같으면 기존 인스턴스 유지 (위치만 반영)
+                if (old.getSlot() != item.getSlot()) {
+                    old.setSlot(item.getSlot());
+                }
+                merged.add(old);
+                continue;
+            }
+
+            if (old != null) {
+                item.setCurrentStock(Math.min(old.getCurrentStock(), item.getMaxStock()));
+                sellIndex.remove(old);
+            }
+            merged.add(item);
+            added.add(item);
+        }
+        for (ShopItem removed : previous.values()) {
+            sellIndex.remove(removed);
+        }
+
+        if (parsed != null) {
+            section.setFile(loaded.getFile());
+            section.setFileName(loaded.getFileName());
+        }
+        // 캐시에서 읽었다면 null이 되어 편집 시 다시 읽음
+        section.setConfig(loaded.getConfig());
+        section.setItems(merged);
+
+        for (ShopItem item : added) {
+            sellIndex.add(section, item);
+        }
+        if (!added.isEmpty() || !previous.isEmpty()) {
+            // 교체/삭제된 이전 인스턴스가 복구 스케줄에 남아 같은 ID의 DB 재고를 덮어쓰지 않도록 전체를 다시 확인
+            requestRestorationRescan();
+        }
+        return added.size() + previous.size();
+    }
+
+    private void requestRestorationRescan() {
+        if (plugin.getPriceRestorationTask() != null) {
+            plugin.getPriceRestorationTask().requestRescan();
+        }
+    }
+
+    private void storeParsed(ParsedFile parsed) {
+        if (parsed != null && !parsed.fromCache() && catalogCache != null) {
+            catalogCache.store(parsed.file(), parsed.definitions());
+        }
+    }
+
+    /**
+     * 플러그인이 직접 쓴 파일 내용을 기록합니다. 파일 감시가 자신의 저장을 외부 변경으로 보고 다시 읽지 않도록 합니다.
+     */
+    public void markOwnWrite(File file, byte[] data) {
+        ownWrites.put(file.getAbsoluteFile().toPath(), CatalogCache.hash(data));
+    }
 
-            loadItemsForSection(section);
-            sections.put(key, section);
+    /**
+     * 파일의 현재 내용이 플러그인이 마지막으로 쓴 내용과 같은지 확인합니다.
+     */
+    public boolean isOwnWrite(File file) {
+        byte[] expected = ownWrites.get(file.getAbsoluteFile().toPath());
+        if (expected == null || !file.exists()) {
+            return false;
+        }
+        try {
+            return java.util.Arrays.equals(expected, CatalogCache.hash(java.nio.file.Files.readAllBytes(file.toPath())));
+        } catch (java.io.IOException e) {
+            return false;
         }
-        plugin.getLogger().info(sections.size() + "개의 상점 섹션을 로드했습니다.");
     }
 
-    private void loadItemsForSection(ShopSection section) {
+    /**
+     * 상점 파일 로드 결과를 기다립니다. 실패한 섹션은 아이템 없이 로드됩니다.
+     */
+    private ParsedFile waitFor(Future<ParsedFile> future, ShopSection section) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("상점 파일 로드 중 오류 발생 (" + section.getId() + "): " + e.getCause());
+        }
+        section.setItems(new ArrayList<>());
+        return null;
+    }
+
+    /**
+     * 섹션의 상점 파일을 읽어 아이템을 채웁니다. 로더 스레드에서 실행되며,
+     * 아직 공개되지 않은 섹션만 수정하고 아이템 스택은 만들지 않습니다 (itemStackLoader로 지연 생성).
+     *
+     * @return 로드 결과, 상점 파일이 없으면 null
+     */
+    private ParsedFile loadItemsForSection(ShopSection section, Map<String, Long> storedStocks,
+            boolean globalDynamic) {
         File shopFile = new File(plugin.getDataFolder(), "shops/" + section.getId() + ".yml");
         if (!shopFile.exists())
-            return;
+            return null;
 
-        FileConfiguration shopConfig = YamlConfiguration.loadConfiguration(shopFile);
         section.setFile(shopFile);
-        section.setConfig(shopConfig);
         section.setFileName(shopFile.getName());
 
+        long startTime = System.nanoTime();
+
+        // 파일이 바뀌지 않았으면 캐시에서 바로 로드 (YAML은 편집 시 필요할 때 읽음)
+        List<CatalogCache.ItemDefinition> definitions = catalogCache != null ? catalogCache.lookup(shopFile) : null;
+        if (definitions != null) {
+            for (CatalogCache.ItemDefinition definition : definitions) {
+                addItem(section, definition, storedStocks, globalDynamic);
+            }
+            return new ParsedFile(shopFile, definitions, true, System.nanoTime() - startTime);
+        }
+
+        FileConfiguration shopConfig = YamlConfiguration.loadConfiguration(shopFile);
+        section.setConfig(shopConfig);
+
         ConfigurationSection itemsRoot = shopConfig.getConfigurationSection("items");
         ConfigurationSection source = itemsRoot != null ? itemsRoot : shopConfig;
 
+        definitions = new ArrayList<>();
         for (String key : source.getKeys(false)) {
             if (itemsRoot == null && key.equalsIgnoreCase("items"))
                 continue;
@@ -72,59 +377,67 @@ public class ShopManager {
             if (itemData == null)
                 continue;
 
-            int slot = itemData.getInt("slot", -1);
-            if (slot == -1 || isSlotOccupied(section, slot)) {
-                slot = findNextEmptySlot(section);
-            }
-
-            // 전역 동적 경제 설정 확인
-            boolean globalDynamic = plugin.getConfigManager().isGlobalDynamicPricingEnabled();
-            // 섹션 동적 경제 설정 확인
-            boolean sectionDynamic = section.isDynamicPricing();
-            // 아이템 동적 경제 설정 확인
-            boolean itemDynamic = itemData.getBoolean("dynamic-pricing", false);
-
-            // 최종 동적 경제 활성화 여부 결정 (전역 AND 섹션 AND 아이템)
-            boolean finalDynamic = globalDynamic && sectionDynamic && itemDynamic;
-
-            // Lazy Loading 적용: itemStackLoader 사용, items.getId() 대신 key 사용 (이미 key임)
-            ShopItem item = ShopItem.builder()
-                    .id(key)
-                    .itemStackLoader(() -> me.antigravity.economyshop.util.ItemSerializer.deserialize(plugin, itemData))
-                    .buyPrice(itemData.getDouble("buy", 0.0))
-                    .sellPrice(itemData.getDouble("sell", 0.0))
-                    .slot(slot)
-                    .dynamicPricing(finalDynamic) // 최종 계산된 설정 적용
-                    .maxStock(itemData.getLong("max-stock", 1000L))
-                    .currentStock(itemData.getLong("max-stock", 1000L)) // 초기 재고는 최대치
-                    .minPrice(itemData.getDouble("min-price", 0.0))
-                    .maxPrice(itemData.getDouble("max-price", 10000.0))
-                    .build();
-
-            // DB에서 현재 재고 로드 (동적 가격인 경우)
-            if (finalDynamic) {
-                long dbStock = plugin.getDatabaseManager().loadDynamicStock(key, item.getMaxStock());
-                item.setCurrentStock(dbStock);
-            }
-
-            section.getItems().add(item);
+            CatalogCache.ItemDefinition definition = CatalogCache.ItemDefinition.fromYaml(plugin, key, itemData);
+            definitions.add(definition);
+            addItem(section, definition, storedStocks, globalDynamic);
         }
+        return new ParsedFile(shopFile, definitions, false, System.nanoTime() - startTime);
     }
 
-    private boolean isSlotOccupied(ShopSection section, int slot) {
-        return section.getItems().stream().anyMatch(item -> item.getSlot() == slot);
-    }
+    private void addItem(ShopSection section, CatalogCache.ItemDefinition definition, Map<String, Long> storedStocks,
+            boolean globalDynamic) {
+        String key = definition.getId();
+        int slot = definition.getSlot();
+        if (slot == -1 || section.isSlotOccupied(slot)) {
+            slot = section.nextEmptySlot();
+        }
 
-    private int findNextEmptySlot(ShopSection section) {
-        int slot = 0;
-        while (isSlotOccupied(section, slot)) {
-            slot++;
+        // 섹션 동적 경제 설정 확인
+        boolean sectionDynamic = section.isDynamicPricing();
+        // 아이템 동적 경제 설정 확인
+        boolean itemDynamic = definition.isDynamicPricing();
+
+        // 최종 동적 경제 활성화 여부 결정 (전역 AND 섹션 AND 아이템)
+        boolean finalDynamic = globalDynamic && sectionDynamic && itemDynamic;
+
+        // Lazy Loading 적용: itemStackLoader 사용
+        ShopItem item = ShopItem.builder()
+                .id(key)
+                .sourceHash(definition.getSourceHash())
+                .itemStackLoader(definition.getItemLoader())
+                .buyPrice(definition.getBuyPrice())
+                .sellPrice(definition.getSellPrice())
+                .slot(slot)
+                .dynamicPricing(finalDynamic) // 최종 계산된 설정 적용
+                .maxStock(definition.getMaxStock())
+                .currentStock(definition.getMaxStock()) // 초기 재고는 최대치
+                .minPrice(definition.getMinPrice())
+                .maxPrice(definition.getMaxPrice())
+                .pricingModel(me.antigravity.economyshop.model.pricing.PricingModel.of(
+                        definition.getPricingModel(), definition.getPricingSteepness()))
+                .permissions(new ArrayList<>(definition.getPermissions()))
+                .requirements(definition.getRequirements() != null
+                        ? new java.util.LinkedHashMap<>(definition.getRequirements())
+                        : null)
+                .build();
+
+        // 구매 요구사항을 미리 컴파일 (GUI/구매 시 맵 조회와 문자열 생성 방지)
+        item.getCompiledRequirements();
+
+        // 미리 로드된 DB 재고 적용 (동적 가격인 경우)
+        if (finalDynamic) {
+            Long dbStock = storedStocks.get(key);
+            if (dbStock != null) {
+                item.setCurrentStock(dbStock);
+            }
         }
-        return slot;
+
+        section.addItem(item);
     }
 
     public void saveShops() {
-        // 현재는 메모리 기반이므로 종료 시 저장할 특별한 데이터를 따로 처리하지 않음 (추후 동적 가격 영속성 등 추가)
+        // 저장 대기 중인 상점 파일을 모두 기록 (동적 재고는 DB에 별도로 저장됨)
+        fileWriter.shutdown();
         plugin.getLogger().info("상점 데이터 저장 완료.");
     }
 
@@ -132,6 +445,35 @@ public class ShopManager {
         return sections;
     }
 
+    /**
+     * 판매 아이템 조회용 인덱스를 반환합니다.
+     */
+    public SellIndex getSellIndex() {
+        return sellIndex;
+    }
+
+    /**
+     * 상점 파일과 sections.yml이 함께 쓰는 저장 큐를 반환합니다.
+     */
+    public ShopFileWriter getFileWriter() {
+        return fileWriter;
+    }
+
+    /**
+     * 현재 섹션 구성의 세대 번호를 반환합니다. 값이 바뀌었다면 섹션/아이템 참조를 다시 조회해야 합니다.
+     */
+    public int getCatalogGeneration() {
+        return catalogGeneration.get();
+    }
+
+    /**
+     * 섹션이 추가되거나 제거되었음을 알립니다. 판매 인덱스를 무효화하고 세대 번호를 올립니다.
+     */
+    public void markCatalogChanged() {
+        sellIndex.invalidate();
+        catalogGeneration.incrementAndGet();
+    }
+
     /**
      * 특정 아이템의 변경된 설정을 YAML 파일에 저장합니다.
      */
@@ -150,33 +492,56 @@ public class ShopManager {
         itemSection.set("slot", item.getSlot());
         itemSection.set("dynamic-pricing", item.isDynamicPricing());
 
-        saveConfigAsync(config, section.getFile());
+        saveSectionFile(section);
+
+        // 판매 인덱스 갱신 (추가/가격 변경)
+        sellIndex.update(section, item);
 
         // DB에도 저장 (동적 재고 등)
         if (item.isDynamicPricing()) {
-            plugin.getDatabaseManager().saveDynamicPrice(item.getId(), item.getCurrentStock());
+            plugin.getDatabaseManager().queueDynamicPrice(item.getId(), item.getCurrentStock());
         }
     }
 
     public void deleteShopItem(ShopSection section, ShopItem item) {
         // 메모리에서 제거
-        section.getItems().remove(item);
+        section.removeItem(item);
+        sellIndex.remove(item);
 
         FileConfiguration config = section.getConfig();
         if (config != null) {
             config.set("items." + item.getId(), null);
-            saveConfigAsync(config, section.getFile());
+            saveSectionFile(section);
         }
     }
 
-    private void saveConfigAsync(FileConfiguration config, java.io.File file) {
-        final String data = config.saveToString();
-        java.util.concurrent.CompletableFuture.runAsync(() -> {
-            try {
-                java.nio.file.Files.write(file.toPath(), data.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            } catch (java.io.IOException e) {
-                plugin.getLogger().severe("비동기 저장 중 오류 발생 (" + file.getName() + "): " + e.getMessage());
-            }
-        });
+    /**
+     * 섹션의 상점 파일 저장을 예약합니다. 짧은 시간 안의 여러 변경은 한 번에 저장됩니다.
+     */
+    public void saveSectionFile(ShopSection section) {
+        FileConfiguration config = section.getConfig();
+        if (config != null && section.getFile() != null) {
+            fileWriter.save(section.getFile(), config);
+        }
+    }
+
+    /**
+     * 상점 파일 하나의 로드 결과
+     *
+     * @param fromCache 카탈로그 캐시에서 로드했는지 여부 (false면 YAML을 파싱함)
+     * @param nanos     로드에 걸린 시간
+     */
+    private record ParsedFile(File file, List<CatalogCache.ItemDefinition> definitions, boolean fromCache,
+            long nanos) {
+    }
+
+    /**
+     * 상점 파일 로드 경로별 시간 측정 (캐시 / YAML 파싱)
+     */
+    private static final class LoadStats {
+        private int cachedFiles;
+        private long cachedNanos;
+        private int parsedFiles;
+        private long parsedNanos;
     }
 }
@@ -0,0 +1,534 @@
+package me.antigravity.economyshop.manager;
+
+import me.antigravity.economyshop.EconomyShop;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 거래 기록을 바이너리 세그먼트 파일에 순차 기록하는 저널입니다.
+ *
+ * <p>
+ * 하나의 전용 스레드만 파일에 쓰며, 레코드는 [길이][시간][플레이어][유형][아이템][수량][금액] 구조로 저장됩니다.
+ * 세그먼트는 크기 또는 날짜가 바뀌면 교체되며, 서버를 다시 시작하면 마지막 세그먼트에 이어서 기록합니다.
+ * 최근 세그먼트 몇 개와 보존 기간 안에 기록된 세그먼트는 압축하지 않고 유지하고,
+ * 그보다 오래된 세그먼트는 gzip으로 압축되어 보관됩니다.
+ * 압축되지 않은 세그먼트의 레코드 위치는 플레이어별로 메모리에 인덱싱되어,
+ * 거래 내역 조회 시 해당 페이지의 레코드만 읽습니다.
+ * </p>
+ */
+public class TransactionJournal {
+
+    private static final int MAGIC = 0x45534A31; // "ESJ1"
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("journal-(\\d+)\\.esj(\\.gz)?");
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final String NOTE_TYPE = "NOTE";
+    // 레코드 크기 범위: 시간(8) + 문자열 3개(각 2바이트 길이 + 최대 65535바이트) + 수량(4) + 금액(8)
+    private static final int MIN_RECORD_BYTES = 8 + 2 * 3 + 4 + 8;
+    private static final int MAX_RECORD_BYTES = 8 + (2 + 65535) * 3 + 4 + 8;
+
+    private final EconomyShop plugin;
+    private final File folder;
+    private final long maxSegmentBytes;
+    private final int hotSegments;
+    private final long hotRetentionMillis;
+
+    private final BlockingQueue<JournalRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // 레코드 위치 인덱스 (세그먼트 번호 << 40 | 오프셋), 오래된 순으로 정렬됨
+    private final PointerList allRecords = new PointerList();
+    private final Map<String, PointerList> playerRecords = new ConcurrentHashMap<>();
+
+    // 아래 필드는 쓰기 스레드 전용
+    private DataOutputStream out;
+    private int segmentNo;
+    private long segmentSize;
+    private LocalDate segmentDate;
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream(128);
+
+    // 인덱스 구성 시 확인한 마지막 세그먼트의 상태 (이어서 기록할 수 있는지 판단, 쓰기 스레드 전용)
+    private int tailSegment;
+    private long tailValidEnd;
+    private LocalDate tailDate;
+    private boolean tailClean;
+
+    public TransactionJournal(EconomyShop plugin, File folder) {
+        this.plugin = plugin;
+        this.folder = folder;
+        this.maxSegmentBytes = Math.max(1, plugin.getConfigManager().getMainConfig()
+                .getLong("transaction-journal.max-segment-size", 8)) * 1024L * 1024L;
+        this.hotSegments = Math.max(1, plugin.getConfigManager().getMainConfig()
+                .getInt("transaction-journal.hot-segments", 3));
+        this.hotRetentionMillis = Math.max(0, plugin.getConfigManager().getMainConfig()
+                .getLong("transaction-journal.hot-days", 7)) * 24L * 60L * 60L * 1000L;
+
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        this.writerThread = new Thread(this::runWriter, "EconomyShop-Journal");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 거래 레코드를 기록 대기열에 추가합니다. (스레드 안전)
+     */
+    public void append(String player, String type, String item, int amount, double price) {
+        if (running) {
+            queue.offer(new JournalRecord(System.currentTimeMillis(), player, type, item, amount, price));
+        }
+    }
+
+    /**
+     * 거래가 아닌 일반 메시지를 기록합니다. 거래 내역 조회에는 포함되지 않습니다.
+     */
+    public void appendNote(String message) {
+        append("", NOTE_TYPE, message, 0, 0.0);
+    }
+
+    /**
+     * 최신순으로 정렬된 거래 내역 한 페이지를 조회합니다.
+     *
+     * @param player   조회할 플레이어 이름 (null이면 전체)
+     * @param page     페이지 (1부터 시작)
+     * @param pageSize 페이지당 레코드 수
+     */
+    public CompletableFuture<List<JournalRecord>> query(String player, int page, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> {
+            PointerList pointers = player == null ? allRecords : playerRecords.get(indexKey(player));
+            if (pointers == null) {
+                return Collections.emptyList();
+            }
+
+            long[] selected = pointers.newest(Math.max(0, (page - 1) * pageSize), pageSize);
+            List<JournalRecord> results = new ArrayList<>(selected.length);
+            Map<Integer, RandomAccessFile> openFiles = new HashMap<>();
+            try {
+                for (long pointer : selected) {
+                    JournalRecord record = readAt(openFiles, pointer);
+                    if (record != null) {
+                        results.add(record);
+                    }
+                }
+            } finally {
+                for (RandomAccessFile file : openFiles.values()) {
+                    try {
+                        file.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * 남은 레코드를 모두 기록하고 쓰기 스레드를 종료합니다.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- 쓰기 스레드 ---
+
+    private void runWriter() {
+        try {
+            writeLoop();
+        } finally {
+            // 어떤 이유로든 쓰기 스레드가 끝나면 더 이상 대기열에 쌓지 않음
+            running = false;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            rebuildIndex();
+            if (!reopenTailSegment(LocalDate.now())) {
+                openNextSegment(LocalDate.now());
+            }
+            compressOldSegments();
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("거래 저널 초기화 실패: " + e.getMessage());
+            return;
+        }
+
+        List<JournalRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                JournalRecord first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 1023);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().severe("거래 저널 기록 실패 (" + batch.size() + "건): " + e.getMessage());
+            }
+            batch.clear();
+        }
+
+        // 인터럽트로 빠져나온 경우에도 남은 레코드 기록
+        queue.drainTo(batch);
+        try {
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("거래 저널 종료 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<JournalRecord> batch) throws IOException {
+        long[] pointers = new long[batch.size()];
+        int indexed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            JournalRecord record = batch.get(i);
+            LocalDate date = Instant.ofEpochMilli(record.timestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+            if (segmentSize >= maxSegmentBytes || !date.equals(segmentDate)) {
+                // 교체 전 세그먼트에 쓴 레코드를 먼저 인덱스에 반영
+                out.flush();
+                indexed = indexRange(batch, pointers, indexed, i);
+                rotate(date);
+            }
+
+            byte[] payload;
+            try {
+                payload = encode(record);
+            } catch (UTFDataFormatException e) {
+                // 64KB를 넘는 문자열은 기록할 수 없으므로 이 레코드만 건너뜀
+                plugin.getLogger().warning("거래 저널에 기록할 수 없는 레코드를 건너뜁니다 (" + record.type() + ", "
+                        + record.player() + "): " + e.getMessage());
+                pointers[i] = -1;
+                continue;
+            }
+            pointers[i] = ((long) segmentNo << OFFSET_BITS) | segmentSize;
+            out.writeInt(payload.length);
+            out.write(payload);
+            segmentSize += 4 + payload.length;
+        }
+        out.flush();
+
+        // 디스크에 기록된 뒤에만 인덱스에 노출
+        indexRange(batch, pointers, indexed, batch.size());
+    }
+
+    private int indexRange(List<JournalRecord> batch, long[] pointers, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (pointers[i] >= 0) {
+                index(batch.get(i).player(), pointers[i]);
+            }
+        }
+        return to;
+    }
+
+    private void rotate(LocalDate date) throws IOException {
+        if (out != null) {
+            out.close();
+        }
+        openNextSegment(date);
+        compressOldSegments();
+    }
+
+    /**
+     * 마지막 세그먼트가 오늘 날짜이고 크기 여유가 있으면 이어서 기록합니다. (재시작마다 새 세그먼트가 생기지 않도록)
+     * 마지막 레코드가 잘려 있으면 완전한 레코드까지만 남기고 잘라냅니다.
+     *
+     * @return 이어서 열었는지 여부 (false면 새 세그먼트를 열어야 함)
+     */
+    private boolean reopenTailSegment(LocalDate today) throws IOException {
+        if (tailSegment == 0 || tailSegment != segmentNo || !tailClean || tailValidEnd >= maxSegmentBytes
+                || (tailDate != null && !tailDate.equals(today))) {
+            return false;
+        }
+
+        File file = segmentFile(tailSegment, false);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > tailValidEnd) {
+                plugin.getLogger().warning("거래 저널의 잘린 마지막 레코드를 정리했습니다: " + file.getName() + " ("
+                        + (raf.length() - tailValidEnd) + "바이트)");
+                raf.setLength(tailValidEnd);
+            }
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024));
+        segmentSize = tailValidEnd;
+        segmentDate = today;
+        return true;
+    }
+
+    private void openNextSegment(LocalDate date) throws IOException {
+        segmentNo++;
+        File file = segmentFile(segmentNo, false);
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.flush();
+        segmentSize = 4;
+        segmentDate = date;
+    }
+
+    /**
+     * 최근 세그먼트와 보존 기간 안의 세그먼트를 제외한 나머지를 gzip으로 압축하고 인덱스에서 제거합니다.
+     */
+    private void compressOldSegments() {
+        TreeMap<Integer, File> hot = listSegments(false);
+        long cutoff = System.currentTimeMillis() - hotRetentionMillis;
+        while (hot.size() > hotSegments) {
+            if (hot.firstEntry().getValue().lastModified() >= cutoff) {
+                break; // 가장 오래된 세그먼트도 보존 기간 안에 있음
+            }
+            Map.Entry<Integer, File> oldest = hot.pollFirstEntry();
+            File source = oldest.getValue();
+            File target = segmentFile(oldest.getKey(), true);
+            try (InputStream in = new FileInputStream(source);
+                    OutputStream gz = new GZIPOutputStream(new FileOutputStream(target))) {
+                in.transferTo(gz);
+            } catch (IOException e) {
+                plugin.getLogger().warning("거래 저널 압축 실패 (" + source.getName() + "): " + e.getMessage());
+                target.delete();
+                continue;
+            }
+            if (!source.delete()) {
+                plugin.getLogger().warning("압축된 거래 저널 원본 삭제 실패: " + source.getName());
+            }
+        }
+
+        if (!hot.isEmpty()) {
+            long minPointer = (long) hot.firstKey() << OFFSET_BITS;
+            allRecords.removeBefore(minPointer);
+            playerRecords.values().removeIf(list -> list.removeBefore(minPointer) == 0);
+        }
+    }
+
+    /**
+     * 압축되지 않은 기존 세그먼트를 읽어 플레이어별 인덱스를 다시 구성합니다.
+     * 마지막 세그먼트의 끝 위치와 날짜도 기록해 두어 이어서 기록할 수 있는지 판단합니다.
+     */
+    private void rebuildIndex() {
+        TreeMap<Integer, File> hot = listSegments(false);
+        TreeMap<Integer, File> archived = listSegments(true);
+        segmentNo = Math.max(hot.isEmpty() ? 0 : hot.lastKey(), archived.isEmpty() ? 0 : archived.lastKey());
+
+        int indexed = 0;
+        for (Map.Entry<Integer, File> entry : hot.entrySet()) {
+            File file = entry.getValue();
+            long fileSize = file.length();
+            long offset = 4;
+            long lastTimestamp = -1;
+            boolean valid = false;
+            boolean clean = false;
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+                if (in.readInt() != MAGIC) {
+                    plugin.getLogger().warning("올바르지 않은 거래 저널 파일: " + file.getName());
+                    continue;
+                }
+                valid = true;
+                while (true) {
+                    int length = in.readInt();
+                    if (length < MIN_RECORD_BYTES || length > MAX_RECORD_BYTES) {
+                        plugin.getLogger().warning("손상된 거래 저널 레코드 (" + file.getName() + ", 위치 " + offset
+                                + ", 길이 " + length + "), 이후 레코드는 읽지 않습니다.");
+                        break;
+                    }
+                    if (offset + 4 + length > fileSize) {
+                        clean = true; // 기록 도중 잘린 마지막 레코드
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+                    lastTimestamp = data.readLong();
+                    index(data.readUTF(), ((long) entry.getKey() << OFFSET_BITS) | offset);
+                    offset += 4 + length;
+                    indexed++;
+                }
+            } catch (EOFException ignored) {
+                // 파일 끝 (마지막 레코드의 길이가 잘린 경우 포함)
+                clean = true;
+            } catch (IOException e) {
+                plugin.getLogger().warning("거래 저널 인덱스 구성 실패 (" + file.getName() + "): " + e.getMessage());
+            }
+
+            if (valid && entry.getKey() == segmentNo) {
+                tailSegment = entry.getKey();
+                tailValidEnd = offset;
+                tailClean = clean;
+                tailDate = lastTimestamp < 0 ? null
+                        : Instant.ofEpochMilli(lastTimestamp).atZone(ZoneId.systemDefault()).toLocalDate();
+            }
+        }
+        plugin.getLogger().info("거래 저널 인덱스 구성 완료 (" + indexed + "건, 세그먼트 " + hot.size() + "개)");
+    }
+
+    private void index(String player, long pointer) {
+        if (player == null || player.isEmpty()) {
+            return; // 일반 메시지는 조회 대상이 아님
+        }
+        allRecords.add(pointer);
+        playerRecords.computeIfAbsent(indexKey(player), k -> new PointerList()).add(pointer);
+    }
+
+    private byte[] encode(JournalRecord record) throws IOException {
+        encodeBuffer.reset();
+        DataOutputStream data = new DataOutputStream(encodeBuffer);
+        data.writeLong(record.timestamp());
+        data.writeUTF(record.player());
+        data.writeUTF(record.type());
+        data.writeUTF(record.item());
+        data.writeInt(record.amount());
+        data.writeDouble(record.price());
+        data.flush();
+        return encodeBuffer.toByteArray();
+    }
+
+    // --- 읽기 ---
+
+    private JournalRecord readAt(Map<Integer, RandomAccessFile> openFiles, long pointer) {
+        int segment = (int) (pointer >>> OFFSET_BITS);
+        long offset = pointer & OFFSET_MASK;
+        try {
+            RandomAccessFile file = openFiles.get(segment);
+            if (file == null) {
+                file = new RandomAccessFile(segmentFile(segment, false), "r");
+                openFiles.put(segment, file);
+            }
+            file.seek(offset);
+            int length = file.readInt();
+            if (length < MIN_RECORD_BYTES || length > MAX_RECORD_BYTES || offset + 4 + length > file.length()) {
+                return null; // 손상된 레코드
+            }
+            byte[] payload = new byte[length];
+            file.readFully(payload);
+
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+            return new JournalRecord(data.readLong(), data.readUTF(), data.readUTF(), data.readUTF(),
+                    data.readInt(), data.readDouble());
+        } catch (IOException e) {
+            // 조회 도중 세그먼트가 압축된 경우 등
+            return null;
+        }
+    }
+
+    private TreeMap<Integer, File> listSegments(boolean compressed) {
+        TreeMap<Integer, File> segments = new TreeMap<>();
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return segments;
+        }
+        for (File file : files) {
+            Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+            if (matcher.matches() && (matcher.group(2) != null) == compressed) {
+                segments.put(Integer.parseInt(matcher.group(1)), file);
+            }
+        }
+        return segments;
+    }
+
+    private File segmentFile(int number, boolean compressed) {
+        return new File(folder, String.format("journal-%06d.esj", number) + (compressed ? ".gz" : ""));
+    }
+
+    private static String indexKey(String player) {
+        return player.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 저널에 기록되는 거래 레코드
+     */
+    public record JournalRecord(long timestamp, String player, String type, String item, int amount,
+            double price) {
+    }
+
+    /**
+     * 오름차순으로 추가되는 레코드 위치 목록 (박싱 없는 long 배열)
+     */
+    private static final class PointerList {
+        private long[] values = new long[16];
+        private int size;
+
+        synchronized void add(long pointer) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = pointer;
+        }
+
+        /**
+         * 최신순으로 skip개를 건너뛴 뒤 최대 limit개를 반환합니다.
+         */
+        synchronized long[] newest(int skip, int limit) {
+            int end = size - skip;
+            if (end <= 0 || limit <= 0) {
+                return new long[0];
+            }
+            int count = Math.min(limit, end);
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = values[end - 1 - i];
+            }
+            return result;
+        }
+
+        /**
+         * minPointer보다 작은 위치를 제거합니다.
+         *
+         * @return 남은 개수
+         */
+        synchronized int removeBefore(long minPointer) {
+            int index = Arrays.binarySearch(values, 0, size, minPointer);
+            int cut = index >= 0 ? index : -index - 1;
+            if (cut > 0) {
+                System.arraycopy(values, cut, values, 0, size - cut);
+                size -= cut;
+            }
+            return size;
+        }
+    }
+}
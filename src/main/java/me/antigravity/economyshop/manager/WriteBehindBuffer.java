@@ -0,0 +1,195 @@
+package me.antigravity.economyshop.manager;
+
+import me.antigravity.economyshop.EconomyShop;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 동적 재고 및 플레이어 구매 제한 쓰기를 모아서 처리하는 write-behind 버퍼입니다.
+ * 같은 키에 대한 변경은 마지막 값만 남기고(coalesce), 일정 주기 또는 임계치에 도달하면
+ * 하나의 트랜잭션 안에서 JDBC 배치로 저장합니다.
+ */
+public class WriteBehindBuffer {
+
+    private final EconomyShop plugin;
+    private final DatabaseManager databaseManager;
+
+    // 아직 저장되지 않은 변경 사항 (키별 최신 값만 유지)
+    private final Map<String, Long> dirtyStocks = new ConcurrentHashMap<>();
+    private final Map<LimitKey, Integer> dirtyLimits = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final int flushIntervalSeconds;
+    private final int flushThreshold;
+
+    private BukkitTask flushTask;
+    private volatile boolean running = false;
+
+    public WriteBehindBuffer(EconomyShop plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.flushIntervalSeconds = Math.max(1,
+                plugin.getConfigManager().getMainConfig().getInt("write-behind.flush-interval", 5));
+        this.flushThreshold = Math.max(1,
+                plugin.getConfigManager().getMainConfig().getInt("write-behind.flush-threshold", 500));
+    }
+
+    /**
+     * 주기적인 비동기 저장 태스크를 시작합니다.
+     */
+    public void start() {
+        long intervalTicks = flushIntervalSeconds * 20L;
+        this.running = true;
+        this.flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+                intervalTicks, intervalTicks);
+    }
+
+    /**
+     * 태스크를 중지하고 남은 변경 사항을 현재 스레드에서 모두 저장합니다.
+     * 플러그인 비활성화 시 DB 연결을 닫기 전에 호출되어야 합니다.
+     */
+    public void shutdown() {
+        running = false;
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+
+    /**
+     * 아이템의 동적 재고 변경을 버퍼에 기록합니다.
+     */
+    public void queueDynamicStock(String itemId, long currentStock) {
+        dirtyStocks.put(itemId, currentStock);
+        checkThreshold();
+    }
+
+    /**
+     * 여러 아이템의 동적 재고 변경을 한 번에 버퍼에 기록합니다.
+     */
+    public void queueDynamicStocks(Map<String, Long> stocks) {
+        dirtyStocks.putAll(stocks);
+        checkThreshold();
+    }
+
+    /**
+     * 플레이어의 구매 횟수 변경을 버퍼에 기록합니다.
+     * 저장 시점이 아닌 구매한 날짜의 기록으로 저장되도록 날짜를 함께 보관합니다.
+     */
+    public void queuePlayerLimit(String uuid, String itemId, int count) {
+        dirtyLimits.put(new LimitKey(uuid, itemId, DatabaseManager.today()), count);
+        checkThreshold();
+    }
+
+    /**
+     * 저장 대기 중인 변경 사항 수를 반환합니다.
+     */
+    public int getPendingCount() {
+        return dirtyStocks.size() + dirtyLimits.size();
+    }
+
+    /**
+     * 진행 중인 저장과 겹치지 않도록 DB에서 재고를 읽은 뒤, 아직 저장되지 않은 값을 덮어씌웁니다.
+     * 리로드 직전에 거래된 아이템도 최신 재고로 로드됩니다.
+     *
+     * @param loader DB 조회 함수 (수정 가능한 맵을 반환해야 함)
+     */
+    public Map<String, Long> readStocks(Supplier<Map<String, Long>> loader) {
+        synchronized (flushLock) {
+            Map<String, Long> result = loader.get();
+            result.putAll(dirtyStocks);
+            return result;
+        }
+    }
+
+    /**
+     * 특정 플레이어의 오늘 구매 기록을 DB에서 읽은 뒤, 아직 저장되지 않은 값을 덮어씌웁니다.
+     *
+     * @param uuid   플레이어 UUID 문자열
+     * @param loader DB 조회 함수 (수정 가능한 맵을 반환해야 함)
+     */
+    public Map<String, Integer> readLimits(String uuid, Supplier<Map<String, Integer>> loader) {
+        synchronized (flushLock) {
+            Map<String, Integer> result = loader.get();
+            LocalDate today = DatabaseManager.today();
+            for (Map.Entry<LimitKey, Integer> entry : dirtyLimits.entrySet()) {
+                if (entry.getKey().uuid().equals(uuid) && entry.getKey().date().equals(today)) {
+                    result.put(entry.getKey().itemId(), entry.getValue());
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 변경 사항을 하나의 트랜잭션으로 저장합니다.
+     * 저장에 실패하면 더 최신 값이 들어오지 않은 항목만 다시 버퍼에 넣어 다음 주기에 재시도합니다.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (dirtyStocks.isEmpty() && dirtyLimits.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> stocks = drain(dirtyStocks);
+            Map<LimitKey, Integer> limits = drain(dirtyLimits);
+
+            if (!databaseManager.writeBatch(stocks, limits)) {
+                stocks.forEach(dirtyStocks::putIfAbsent);
+                limits.forEach(dirtyLimits::putIfAbsent);
+            }
+        }
+    }
+
+    /**
+     * 변경 사항이 임계치를 넘으면 다음 주기를 기다리지 않고 비동기 저장을 예약합니다.
+     * 버퍼가 이미 종료되었다면 (비활성화 중 호출) 현재 스레드에서 바로 저장합니다.
+     */
+    private void checkThreshold() {
+        if (!running) {
+            plugin.getLogger().fine("쓰기 버퍼가 종료되어 변경 사항을 바로 저장합니다.");
+            flush();
+            return;
+        }
+        if (getPendingCount() < flushThreshold) {
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 맵의 모든 항목을 원자적으로 꺼내옵니다. (remove 시점의 최신 값을 가져옴)
+     */
+    private static <K, V> Map<K, V> drain(Map<K, V> source) {
+        Map<K, V> drained = new HashMap<>();
+        for (K key : source.keySet()) {
+            V value = source.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 플레이어 제한 레코드의 키 (uuid, item_id, 구매한 날짜)
+     */
+    public record LimitKey(String uuid, String itemId, LocalDate date) {
+    }
+}
@@ -1,12 +1,34 @@
 package me.antigravity.economyshop.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import me.antigravity.economyshop.model.pricing.LinearPricingModel;
+import me.antigravity.economyshop.model.pricing.PriceSnapshot;
+import me.antigravity.economyshop.model.pricing.PricingModel;
+import me.antigravity.economyshop.requirement.CompiledRequirements;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
 @Data
 @Builder
 public class ShopItem {
+    private static final AtomicLongFieldUpdater<ShopItem> STOCK = AtomicLongFieldUpdater
+            .newUpdater(ShopItem.class, "currentStock");
+    private static final AtomicIntegerFieldUpdater<ShopItem> VERSION = AtomicIntegerFieldUpdater
+            .newUpdater(ShopItem.class, "version");
+
+    // 최대 재고/현재 재고/동적 가격 설정이 바뀐 아이템을 받는 리스너 (가격 복구 스케줄러가 등록)
+    private static volatile Consumer<ShopItem> stockSettingsListener;
+
     private String id;
     private ItemStack itemStack;
     private transient java.util.function.Supplier<ItemStack> itemStackLoader;
@@ -17,9 +39,12 @@ public class ShopItem {
     // Dynamic Pricing attributes
     private boolean dynamicPricing;
     private long maxStock;
-    private long currentStock;
+    // 메인 스레드(거래)와 비동기 복구 작업이 함께 변경하므로 STOCK 업데이터로만 수정합니다.
+    private volatile long currentStock;
     private double minPrice;
     private double maxPrice;
+    @Builder.Default
+    private PricingModel pricingModel = LinearPricingModel.INSTANCE;
 
     // 제한 시스템
     private int playerLimit; // 0은 무제한
@@ -31,39 +56,84 @@ public class ShopItem {
     private java.util.List<String> permissions; // 구매에 필요한 권한 목록
     private java.util.Map<String, Object> requirements; // 레벨, 플레이타임 등 요구사항
 
+    // 권한/요구사항을 컴파일한 결과 (상점 로드 시 생성, 변경 시 다시 생성)
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile CompiledRequirements compiledRequirements;
+
+    // 아이템 지문 (0이면 아직 계산되지 않음, 아이템 스택이 바뀌면 초기화)
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile long fingerprint;
+
+    // 상점 파일에서 읽은 아이템 설정의 해시 (핫 리로드 시 변경되지 않은 아이템을 유지하는 데 사용, 0이면 알 수 없음)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient long sourceHash;
+
     // Display Cache
     private transient ItemStack cachedDisplayItem;
 
+    // 표시 정보(가격, 재고 등)가 바뀔 때마다 증가하는 버전 (열린 GUI의 변경 감지용)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile int version;
+
+    // 마지막으로 계산한 가격 (버전이 같으면 재사용)
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile PriceSnapshot priceSnapshot;
+
     public void clearCache() {
         this.cachedDisplayItem = null;
+        VERSION.incrementAndGet(this);
     }
 
     /**
-     * 현재 재고량에 따른 실시간 구매 가격을 계산합니다.
-     * 공식: P_now = P_base * (1 + (S_max - S_current) / S_max)
+     * 현재 재고량에 따른 실시간 구매 가격을 반환합니다.
+     * 기본 공식(선형): P_now = P_base * (1 + (S_max - S_current) / S_max)
      */
     public double getCurrentBuyPrice() {
-        if (!dynamicPricing)
-            return buyPrice;
-
-        double multiplier = 1.0 + (double) (maxStock - currentStock) / Math.max(1, maxStock);
-        double calculatedPrice = buyPrice * multiplier;
-
-        return Math.max(minPrice, Math.min(maxPrice, calculatedPrice));
+        return getPriceSnapshot().buyPrice();
     }
 
     /**
-     * 현재 재고량에 따른 실시간 판매 가격을 계산합니다.
+     * 현재 재고량에 따른 실시간 판매 가격을 반환합니다.
      * 판매 가격은 보통 구매 가격의 일정 비율이거나 별도 계산됩니다.
      */
     public double getCurrentSellPrice() {
-        if (!dynamicPricing)
-            return sellPrice;
+        return getPriceSnapshot().sellPrice();
+    }
 
-        double multiplier = 1.0 + (double) (maxStock - currentStock) / Math.max(1, maxStock);
-        double calculatedPrice = sellPrice * multiplier;
+    /**
+     * 현재 가격 정보를 반환합니다. 재고나 가격이 바뀐 뒤 처음 호출될 때만 다시 계산합니다.
+     */
+    public PriceSnapshot getPriceSnapshot() {
+        PriceSnapshot snapshot = priceSnapshot;
+        int currentVersion = version;
+        if (snapshot != null && snapshot.version() == currentVersion) {
+            return snapshot;
+        }
 
-        return Math.max(minPrice * 0.5, Math.min(maxPrice, calculatedPrice));
+        // 버전을 먼저 읽고 계산하므로, 계산 도중 값이 바뀌면 다음 호출에서 다시 계산됨
+        long stock = currentStock;
+        double buy = buyPrice;
+        double sell = sellPrice;
+        if (dynamicPricing) {
+            double multiplier = pricingModel.multiplier(stock, maxStock);
+            buy = Math.max(minPrice, Math.min(maxPrice, buyPrice * multiplier));
+            sell = Math.max(minPrice * 0.5, Math.min(maxPrice, sellPrice * multiplier));
+        }
+        snapshot = new PriceSnapshot(buy, sell, stock, currentVersion);
+        priceSnapshot = snapshot;
+        return snapshot;
     }
 
     // Setters with cache invalidation
@@ -80,11 +150,59 @@ public class ShopItem {
     public void setDynamicPricing(boolean dynamicPricing) {
         this.dynamicPricing = dynamicPricing;
         clearCache();
+        notifyStockSettingsChanged();
     }
 
     public void setCurrentStock(long currentStock) {
-        this.currentStock = currentStock;
+        STOCK.set(this, currentStock);
+        clearCache();
+        notifyStockSettingsChanged();
+    }
+
+    /**
+     * 재고가 예상 값과 같을 때만 새 값으로 변경합니다.
+     *
+     * @return 변경 성공 여부 (다른 스레드가 먼저 변경했으면 false)
+     */
+    public boolean compareAndSetStock(long expected, long newStock) {
+        if (expected == newStock) {
+            return true;
+        }
+        if (STOCK.compareAndSet(this, expected, newStock)) {
+            clearCache();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 재고에 변화량을 원자적으로 더합니다.
+     *
+     * @return 변경 후 재고
+     */
+    public long addStock(long delta) {
+        long updated = STOCK.addAndGet(this, delta);
         clearCache();
+        return updated;
+    }
+
+    /**
+     * 현재 재고에 함수를 원자적으로 적용합니다. 함수는 부작용이 없어야 합니다. (재시도될 수 있음)
+     *
+     * @return 변경 전 재고
+     */
+    public long updateStock(LongUnaryOperator update) {
+        long previous;
+        long next;
+        do {
+            previous = currentStock;
+            next = update.applyAsLong(previous);
+        } while (previous != next && !STOCK.compareAndSet(this, previous, next));
+
+        if (previous != next) {
+            clearCache();
+        }
+        return previous;
     }
 
     public void setSlot(int slot) {
@@ -94,6 +212,61 @@ public class ShopItem {
     public void setMaxStock(long maxStock) {
         this.maxStock = maxStock;
         clearCache();
+        notifyStockSettingsChanged();
+    }
+
+    /**
+     * 재고 설정 변경 리스너를 등록합니다. 에디터나 API에서 재고/동적 가격 설정을 바꾼 아이템도
+     * 가격 복구 대상이 되도록 가격 복구 스케줄러가 시작할 때 등록합니다. (null이면 해제)
+     */
+    public static void setStockSettingsListener(Consumer<ShopItem> listener) {
+        stockSettingsListener = listener;
+    }
+
+    private void notifyStockSettingsChanged() {
+        Consumer<ShopItem> listener = stockSettingsListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
+    public void setMinPrice(double minPrice) {
+        this.minPrice = minPrice;
+        clearCache();
+    }
+
+    public void setMaxPrice(double maxPrice) {
+        this.maxPrice = maxPrice;
+        clearCache();
+    }
+
+    public void setPricingModel(PricingModel pricingModel) {
+        this.pricingModel = pricingModel != null ? pricingModel : LinearPricingModel.INSTANCE;
+        clearCache();
+    }
+
+    public void setPermissions(java.util.List<String> permissions) {
+        this.permissions = permissions;
+        this.compiledRequirements = null;
+        clearCache();
+    }
+
+    public void setRequirements(java.util.Map<String, Object> requirements) {
+        this.requirements = requirements;
+        this.compiledRequirements = null;
+        clearCache();
+    }
+
+    /**
+     * 컴파일된 요구사항을 반환합니다. 아직 컴파일되지 않았으면 지금 컴파일합니다.
+     */
+    public CompiledRequirements getCompiledRequirements() {
+        CompiledRequirements compiled = compiledRequirements;
+        if (compiled == null) {
+            compiled = CompiledRequirements.compile(permissions, requirements);
+            compiledRequirements = compiled;
+        }
+        return compiled;
     }
 
     public void setPlayerLimit(int playerLimit) {
@@ -101,6 +274,34 @@ public class ShopItem {
         clearCache();
     }
 
+    public void setItemStack(ItemStack itemStack) {
+        this.itemStack = itemStack;
+        this.fingerprint = 0L;
+        clearCache();
+    }
+
+    /**
+     * 아이템 스택의 지문을 반환합니다. 처음 호출 시 계산하여 보관합니다.
+     *
+     * @param registry 지문을 계산할 아이템 레지스트리
+     * @return 지문 값, 아이템 스택이 없으면 0
+     */
+    public long getFingerprint(me.antigravity.economyshop.api.item.ItemRegistry registry) {
+        long value = fingerprint;
+        if (value == 0L) {
+            value = registry.fingerprint(getItemStack());
+            fingerprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * 아이템 스택의 메타가 직접 수정되었을 때 지문을 다시 계산하도록 합니다.
+     */
+    public void invalidateFingerprint() {
+        this.fingerprint = 0L;
+    }
+
     // Lazy Loading
     public ItemStack getItemStack() {
         if (itemStack == null && itemStackLoader != null) {
@@ -1,9 +1,16 @@
 package me.antigravity.economyshop.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 @Data
@@ -22,4 +29,168 @@ public class ShopSection {
     private String fileName;
     private java.io.File file;
     private org.bukkit.configuration.file.FileConfiguration config;
+
+    // 슬롯 -> 아이템 인덱스 (필요할 때 생성, 아이템 추가/삭제/이동 시 갱신)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SlotIndex slotIndex;
+
+    // 아이템 추가/삭제/이동 시 증가하는 버전 (열린 GUI의 배치 변경 감지용)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int structureVersion;
+
+    /**
+     * 섹션 YAML 설정을 반환합니다. 카탈로그 캐시에서 로드된 섹션은 처음 필요할 때 파일을 읽습니다.
+     */
+    public org.bukkit.configuration.file.FileConfiguration getConfig() {
+        if (config == null && file != null && file.exists()) {
+            config = org.bukkit.configuration.file.YamlConfiguration.loadConfiguration(file);
+        }
+        return config;
+    }
+
+    public void setItems(List<ShopItem> items) {
+        this.items = items;
+        this.slotIndex = null;
+        this.structureVersion++;
+    }
+
+    /**
+     * 아이템을 섹션에 추가합니다. 아이템의 슬롯은 미리 지정되어 있어야 합니다.
+     */
+    public void addItem(ShopItem item) {
+        SlotIndex index = index();
+        items.add(item);
+        index.put(item);
+        index.indexedSize = items.size();
+        structureVersion++;
+    }
+
+    /**
+     * 아이템을 섹션에서 제거합니다.
+     *
+     * @return 제거 여부
+     */
+    public boolean removeItem(ShopItem item) {
+        SlotIndex index = index();
+        boolean removed = items.remove(item);
+        if (removed) {
+            index.clear(item.getSlot(), item);
+            index.indexedSize = items.size();
+            structureVersion++;
+        }
+        return removed;
+    }
+
+    /**
+     * 아이템을 다른 슬롯으로 이동합니다. 대상 슬롯에 다른 아이템이 있으면 서로 위치를 바꿉니다.
+     *
+     * @return 자리를 바꾼 아이템, 대상 슬롯이 비어 있었으면 null
+     */
+    public ShopItem moveItem(ShopItem item, int newSlot) {
+        SlotIndex index = index();
+        int oldSlot = item.getSlot();
+        ShopItem displaced = index.get(newSlot);
+        if (displaced == item) {
+            return null;
+        }
+
+        index.clear(oldSlot, item);
+        item.setSlot(newSlot);
+        index.put(item);
+
+        if (displaced != null) {
+            displaced.setSlot(oldSlot);
+            index.put(displaced);
+        }
+        structureVersion++;
+        return displaced;
+    }
+
+    /**
+     * 절대 슬롯 번호(페이지 * 45 + 슬롯)에 있는 아이템을 반환합니다.
+     *
+     * @return 아이템, 비어 있으면 null
+     */
+    public ShopItem getItemAt(int slot) {
+        SlotIndex index = index();
+        ShopItem item = index.get(slot);
+        if (item != null && item.getSlot() != slot) {
+            // 인덱스를 거치지 않고 슬롯이 바뀐 경우 다시 구축
+            slotIndex = null;
+            item = index().get(slot);
+        }
+        return item;
+    }
+
+    /**
+     * 슬롯이 사용 중인지 확인합니다.
+     */
+    public boolean isSlotOccupied(int slot) {
+        return getItemAt(slot) != null;
+    }
+
+    /**
+     * 가장 앞쪽의 빈 슬롯을 반환합니다.
+     */
+    public int nextEmptySlot() {
+        return index().occupied.nextClearBit(0);
+    }
+
+    /**
+     * 사용 중인 가장 큰 슬롯 번호를 반환합니다. 아이템이 없으면 -1입니다.
+     */
+    public int getLastSlot() {
+        return index().occupied.length() - 1;
+    }
+
+    private SlotIndex index() {
+        SlotIndex index = slotIndex;
+        if (index == null || index.indexedSize != items.size()) {
+            index = new SlotIndex();
+            for (ShopItem item : items) {
+                index.put(item);
+            }
+            index.indexedSize = items.size();
+            slotIndex = index;
+            structureVersion++;
+        }
+        return index;
+    }
+
+    /**
+     * 슬롯 번호를 배열 인덱스로 사용하는 아이템 조회 테이블과 사용 여부 비트셋
+     */
+    private static final class SlotIndex {
+        private ShopItem[] bySlot = new ShopItem[54];
+        private final BitSet occupied = new BitSet();
+        private int indexedSize;
+
+        private ShopItem get(int slot) {
+            return slot >= 0 && slot < bySlot.length ? bySlot[slot] : null;
+        }
+
+        private void put(ShopItem item) {
+            int slot = item.getSlot();
+            if (slot < 0) {
+                return;
+            }
+            if (slot >= bySlot.length) {
+                bySlot = Arrays.copyOf(bySlot, Math.max(slot + 1, bySlot.length * 2));
+            }
+            bySlot[slot] = item;
+            occupied.set(slot);
+        }
+
+        private void clear(int slot, ShopItem item) {
+            if (get(slot) == item) {
+                bySlot[slot] = null;
+                occupied.clear(slot);
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package me.antigravity.economyshop.model.pricing;
+
+/**
+ * 지수 가격 곡선
+ * 재고가 적을수록 가격이 급격히 오릅니다. 재고가 모두 소진되면 배율은 2가 됩니다.
+ * 공식: multiplier = (e^(k * shortage) - 1) / (e^k - 1) + 1
+ */
+public final class ExponentialPricingModel implements PricingModel {
+
+    private static final double DEFAULT_STEEPNESS = 3.0;
+
+    private final double steepness;
+    private final double scale;
+
+    public ExponentialPricingModel(double steepness) {
+        this.steepness = steepness > 0 ? steepness : DEFAULT_STEEPNESS;
+        this.scale = 1.0 / Math.expm1(this.steepness);
+    }
+
+    @Override
+    public String getName() {
+        return "exponential";
+    }
+
+    @Override
+    public double getSteepness() {
+        return steepness;
+    }
+
+    @Override
+    public double multiplier(long currentStock, long maxStock) {
+        return 1.0 + Math.expm1(steepness * PricingModel.shortage(currentStock, maxStock)) * scale;
+    }
+}
@@ -0,0 +1,23 @@
+package me.antigravity.economyshop.model.pricing;
+
+/**
+ * 선형 가격 곡선 (기본값)
+ * 공식: multiplier = 1 + (S_max - S_current) / S_max
+ */
+public final class LinearPricingModel implements PricingModel {
+
+    public static final LinearPricingModel INSTANCE = new LinearPricingModel();
+
+    private LinearPricingModel() {
+    }
+
+    @Override
+    public String getName() {
+        return "linear";
+    }
+
+    @Override
+    public double multiplier(long currentStock, long maxStock) {
+        return 1.0 + PricingModel.shortage(currentStock, maxStock);
+    }
+}
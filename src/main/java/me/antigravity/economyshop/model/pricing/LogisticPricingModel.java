@@ -0,0 +1,40 @@
+package me.antigravity.economyshop.model.pricing;
+
+/**
+ * 로지스틱(S자) 가격 곡선
+ * 재고가 절반 근처일 때 가격이 가장 크게 변하고, 양 끝에서는 완만합니다.
+ * 재고가 가득 차면 배율 1, 모두 소진되면 배율 2가 되도록 정규화합니다.
+ */
+public final class LogisticPricingModel implements PricingModel {
+
+    private static final double DEFAULT_STEEPNESS = 10.0;
+
+    private final double steepness;
+    private final double low;
+    private final double range;
+
+    public LogisticPricingModel(double steepness) {
+        this.steepness = steepness > 0 ? steepness : DEFAULT_STEEPNESS;
+        this.low = logistic(0.0);
+        this.range = logistic(1.0) - low;
+    }
+
+    @Override
+    public String getName() {
+        return "logistic";
+    }
+
+    @Override
+    public double getSteepness() {
+        return steepness;
+    }
+
+    @Override
+    public double multiplier(long currentStock, long maxStock) {
+        return 1.0 + (logistic(PricingModel.shortage(currentStock, maxStock)) - low) / range;
+    }
+
+    private double logistic(double x) {
+        return 1.0 / (1.0 + Math.exp(-steepness * (x - 0.5)));
+    }
+}
@@ -0,0 +1,13 @@
+package me.antigravity.economyshop.model.pricing;
+
+/**
+ * 특정 시점의 아이템 가격 정보 (불변)
+ * 비동기 스레드(PlaceholderAPI 등)에서도 안전하게 읽을 수 있습니다.
+ *
+ * @param buyPrice     현재 구매 가격
+ * @param sellPrice    현재 판매 가격
+ * @param currentStock 계산에 사용된 재고
+ * @param version      계산 시점의 아이템 버전 (버전이 바뀌면 다시 계산)
+ */
+public record PriceSnapshot(double buyPrice, double sellPrice, long currentStock, int version) {
+}
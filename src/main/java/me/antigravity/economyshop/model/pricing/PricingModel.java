@@ -0,0 +1,52 @@
+package me.antigravity.economyshop.model.pricing;
+
+/**
+ * 재고량에 따른 가격 배율을 계산하는 가격 곡선입니다.
+ * 재고가 가득 차 있으면 1.0, 모두 소진되면 약 2.0이 되도록 구현합니다.
+ */
+public interface PricingModel {
+
+    /**
+     * 설정 파일에 저장되는 곡선 이름 (예: "linear")
+     */
+    String getName();
+
+    /**
+     * 현재 재고에 대한 가격 배율을 계산합니다.
+     *
+     * @param currentStock 현재 재고
+     * @param maxStock     최대 재고
+     */
+    double multiplier(long currentStock, long maxStock);
+
+    /**
+     * 곡선의 가파르기 (선형 곡선은 0)
+     */
+    default double getSteepness() {
+        return 0;
+    }
+
+    /**
+     * 재고 부족 비율 (0 = 가득 참, 1 = 모두 소진)
+     */
+    static double shortage(long currentStock, long maxStock) {
+        return (double) (maxStock - currentStock) / Math.max(1, maxStock);
+    }
+
+    /**
+     * 설정 값으로 가격 곡선을 생성합니다. 알 수 없는 이름은 선형 곡선으로 처리합니다.
+     *
+     * @param name      곡선 이름 (linear, exponential, logistic)
+     * @param steepness 곡선의 가파르기 (0 이하이면 곡선별 기본값)
+     */
+    static PricingModel of(String name, double steepness) {
+        if (name == null) {
+            return LinearPricingModel.INSTANCE;
+        }
+        return switch (name.toLowerCase()) {
+            case "exponential" -> new ExponentialPricingModel(steepness);
+            case "logistic" -> new LogisticPricingModel(steepness);
+            default -> LinearPricingModel.INSTANCE;
+        };
+    }
+}
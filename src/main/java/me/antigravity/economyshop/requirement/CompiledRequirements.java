@@ -0,0 +1,126 @@
+package me.antigravity.economyshop.requirement;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 아이템의 권한/요구사항 설정을 컴파일한 불변 객체입니다.
+ * 조건은 평가 비용 순으로 정렬된 배열로 보관하며, GUI 로어는 컴파일 시 미리 만들어 둡니다.
+ */
+public final class CompiledRequirements {
+
+    public static final CompiledRequirements NONE = new CompiledRequirements(new Requirement[0],
+            Collections.emptyList());
+
+    private final Requirement[] requirements;
+    private final List<String> lore;
+
+    private CompiledRequirements(Requirement[] requirements, List<String> lore) {
+        this.requirements = requirements;
+        this.lore = lore;
+    }
+
+    /**
+     * 권한 목록과 요구사항 맵을 컴파일합니다.
+     *
+     * @param permissions  구매에 필요한 권한 목록 (모두 필요)
+     * @param requirements level, exp, playtime(틱) 등의 요구사항
+     */
+    public static CompiledRequirements compile(List<String> permissions, Map<String, Object> requirements) {
+        List<Requirement> compiled = new ArrayList<>();
+        List<String> lore = new ArrayList<>();
+
+        if (permissions != null && !permissions.isEmpty()) {
+            lore.add("§7필요 권한:");
+            for (String permission : permissions) {
+                compiled.add(new Requirements.Permission(permission));
+                lore.add("  §e- " + permission);
+            }
+        }
+
+        if (requirements != null && !requirements.isEmpty()) {
+            // 레벨 요구사항
+            if (requirements.containsKey("level")) {
+                int level = (int) getLongValue(requirements.get("level"));
+                compiled.add(new Requirements.Level(level));
+                lore.add("§7필요 레벨: §e" + level);
+            }
+
+            // 경험치 요구사항
+            if (requirements.containsKey("exp")) {
+                int exp = (int) getLongValue(requirements.get("exp"));
+                compiled.add(new Requirements.Experience(exp));
+                lore.add("§7필요 경험치: §e" + String.format("%,d", exp));
+            }
+
+            // 플레이타임 요구사항 (틱 단위)
+            if (requirements.containsKey("playtime")) {
+                long playtime = getLongValue(requirements.get("playtime"));
+                compiled.add(new Requirements.Playtime(playtime));
+                lore.add("§7필요 플레이타임: §e" + (playtime / 72000) + "시간");
+            }
+        }
+
+        if (compiled.isEmpty()) {
+            return NONE;
+        }
+
+        Requirement[] sorted = compiled.toArray(new Requirement[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Requirement::cost));
+        return new CompiledRequirements(sorted, Collections.unmodifiableList(lore));
+    }
+
+    /**
+     * 모든 요구사항을 충족하는지 확인합니다. 비용이 낮은 조건부터 확인하고 처음 실패하면 중단합니다.
+     */
+    public boolean test(Player player) {
+        for (Requirement requirement : requirements) {
+            if (!requirement.test(player)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 처음으로 충족하지 못한 요구사항을 반환합니다.
+     *
+     * @return 충족하지 못한 요구사항, 모두 충족하면 null
+     */
+    public Requirement firstFailure(Player player) {
+        for (Requirement requirement : requirements) {
+            if (!requirement.test(player)) {
+                return requirement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 요구사항 표시용 로어 (불변)
+     */
+    public List<String> getLore() {
+        return lore;
+    }
+
+    public boolean isEmpty() {
+        return requirements.length == 0;
+    }
+
+    private static long getLongValue(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
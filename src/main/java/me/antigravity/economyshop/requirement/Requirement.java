@@ -0,0 +1,25 @@
+package me.antigravity.economyshop.requirement;
+
+import org.bukkit.entity.Player;
+
+/**
+ * 아이템 구매 요구사항 하나를 나타내는 조건입니다.
+ * 상점 로드 시 {@link CompiledRequirements}로 컴파일되며, 평가 비용이 낮은 조건부터 확인합니다.
+ */
+public interface Requirement {
+
+    /**
+     * 평가 비용 (낮을수록 먼저 확인)
+     */
+    int cost();
+
+    /**
+     * 플레이어가 조건을 충족하는지 확인합니다.
+     */
+    boolean test(Player player);
+
+    /**
+     * 조건을 충족하지 못한 사유를 반환합니다.
+     */
+    String failureReason(Player player);
+}
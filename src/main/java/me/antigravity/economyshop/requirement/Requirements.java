@@ -0,0 +1,121 @@
+package me.antigravity.economyshop.requirement;
+
+import org.bukkit.Statistic;
+import org.bukkit.entity.Player;
+
+/**
+ * 기본 제공 요구사항 구현 모음
+ */
+final class Requirements {
+
+    // 평가 비용: 필드 조회 < 경험치 계산 < 권한 조회 (권한 플러그인의 상속 트리 탐색) < 통계 조회
+    static final int COST_FIELD = 0;
+    static final int COST_COMPUTE = 1;
+    static final int COST_PERMISSION = 2;
+    static final int COST_STATISTIC = 3;
+
+    private Requirements() {
+    }
+
+    record Level(int required) implements Requirement {
+        @Override
+        public int cost() {
+            return COST_FIELD;
+        }
+
+        @Override
+        public boolean test(Player player) {
+            return player.getLevel() >= required;
+        }
+
+        @Override
+        public String failureReason(Player player) {
+            return String.format("§c필요 레벨: §e%d §7(현재: %d)", required, player.getLevel());
+        }
+    }
+
+    record Experience(int required) implements Requirement {
+        @Override
+        public int cost() {
+            return COST_COMPUTE;
+        }
+
+        @Override
+        public boolean test(Player player) {
+            return getTotalExperience(player) >= required;
+        }
+
+        @Override
+        public String failureReason(Player player) {
+            return String.format("§c필요 경험치: §e%,d §7(현재: %,d)", required, getTotalExperience(player));
+        }
+    }
+
+    record Permission(String node) implements Requirement {
+        @Override
+        public int cost() {
+            return COST_PERMISSION;
+        }
+
+        @Override
+        public boolean test(Player player) {
+            return player.hasPermission(node);
+        }
+
+        @Override
+        public String failureReason(Player player) {
+            return "§c필요 권한: §e" + node;
+        }
+    }
+
+    /**
+     * 플레이타임 요구사항 (틱 단위)
+     */
+    record Playtime(long requiredTicks) implements Requirement {
+        @Override
+        public int cost() {
+            return COST_STATISTIC;
+        }
+
+        @Override
+        public boolean test(Player player) {
+            return player.getStatistic(Statistic.PLAY_ONE_MINUTE) >= requiredTicks;
+        }
+
+        @Override
+        public String failureReason(Player player) {
+            long requiredHours = requiredTicks / 72000; // 틱 → 시간
+            long currentHours = player.getStatistic(Statistic.PLAY_ONE_MINUTE) / 72000;
+            return String.format("§c필요 플레이타임: §e%d시간 §7(현재: %d시간)", requiredHours, currentHours);
+        }
+    }
+
+    static int getTotalExperience(Player player) {
+        int level = player.getLevel();
+        float exp = player.getExp();
+
+        int totalExp;
+
+        if (level <= 16) {
+            totalExp = level * level + 6 * level;
+        } else if (level <= 31) {
+            totalExp = (int) (2.5 * level * level - 40.5 * level + 360);
+        } else {
+            totalExp = (int) (4.5 * level * level - 162.5 * level + 2220);
+        }
+
+        totalExp += Math.round(exp * getExpToNextLevel(level));
+
+        return totalExp;
+    }
+
+    private static int getExpToNextLevel(int level) {
+        if (level <= 15) {
+            return 2 * level + 7;
+        } else if (level <= 30) {
+            return 5 * level - 38;
+        } else {
+            return 9 * level - 158;
+        }
+    }
+}
@@ -21,9 +21,8 @@ public class AutoRefreshTask extends BukkitRunnable {
     public void run() {
         for (Player player : plugin.getServer().getOnlinePlayers()) {
             if (player.getOpenInventory().getTopInventory().getHolder() instanceof ShopGUIHolder holder) {
-                // 최적화: 현재 페이지에 동적 가격 아이템이 있는지 확인 후 렌더링
-                // 여기서는 무조껀 갱신 (단순화 및 확실한 업데이트)
-                plugin.getGuiManager().renderPage(holder);
+                // 가격/재고가 바뀐 슬롯만 갱신 (변경이 없으면 아무 패킷도 보내지 않음)
+                plugin.getGuiManager().refreshPage(holder);
             }
         }
     }
@@ -5,17 +5,49 @@ import me.antigravity.economyshop.model.ShopItem;
 import me.antigravity.economyshop.model.ShopSection;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * 동적 가격이 적용된 아이템의 가격을 시간이 지남에 따라 기준 가격으로 복구시키는 스케줄러입니다.
  * 경제 과열/침체를 방지하고 시장 안정성을 유지합니다.
- * 
+ *
  * 알고리즘: P_next = P_current + (P_target - P_current) * restoration_rate
  * 이 방식은 가격이 목표값에 가까워질수록 변화량이 줄어드는 지수적 감쇠(Exponential Decay) 형태를 띱니다.
+ *
+ * 비동기로 실행되므로 재고는 CAS로만 변경하며, 그 사이 거래가 일어난 아이템은 다음 주기로 미룹니다.
+ *
+ * 전체 상점을 매번 순회하지 않고, 재고가 목표치에서 벗어난 아이템만 다음 조정 시각 순의 우선순위 큐로 관리합니다.
+ * 거래로 재고가 바뀐 아이템은 {@link #track(ShopItem)}으로 등록되며, 목표치에 도달하면 큐에서 빠집니다.
+ * 에디터나 API에서 최대 재고, 현재 재고, 동적 가격 여부를 바꾼 아이템은 ShopItem의 setter가 직접 등록합니다.
  */
 public class PriceRestorationTask extends BukkitRunnable {
 
+    // 조정 시각이 된 아이템을 확인하는 주기 (1초)
+    private static final long CHECK_PERIOD_TICKS = 20L;
+
     private final EconomyShop plugin;
     private final double restorationRate;
+    private volatile long intervalMillis;
+
+    // 다른 스레드에서 등록한 아이템 (다음 실행 시 스케줄에 반영)
+    private final Queue<ShopItem> inbox = new ConcurrentLinkedQueue<>();
+
+    // 아래 두 필드는 태스크 스레드에서만 접근
+    private final PriorityQueue<Scheduled> schedule = new PriorityQueue<>(Comparator.comparingLong(Scheduled::dueAt));
+    private final Set<ShopItem> scheduled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // 상점 리로드 후 전체 아이템을 다시 확인해야 하는지 여부
+    private volatile boolean rescanRequested = true;
 
     /**
      * @param plugin          플러그인 인스턴스
@@ -26,62 +58,159 @@ public class PriceRestorationTask extends BukkitRunnable {
         this.restorationRate = Math.max(0.01, Math.min(1.0, restorationRate));
     }
 
+    /**
+     * 재고가 바뀐 아이템을 복구 대상으로 등록합니다. 어느 스레드에서든 호출할 수 있습니다.
+     * 이미 등록된 아이템의 조정 시각은 바뀌지 않습니다.
+     */
+    public void track(ShopItem item) {
+        if (item.isDynamicPricing()) {
+            inbox.offer(item);
+        }
+    }
+
+    /**
+     * 다음 실행 시 모든 아이템을 다시 확인하도록 요청합니다. (상점 리로드 후 호출)
+     */
+    public void requestRescan() {
+        rescanRequested = true;
+    }
+
+    /**
+     * 복구 대기 중인 아이템 수 (태스크 스레드 기준의 근사값)
+     */
+    public int getTrackedCount() {
+        return scheduled.size();
+    }
+
     @Override
     public void run() {
-        int updatedCount = 0;
+        long now = System.currentTimeMillis();
 
-        for (ShopSection section : plugin.getShopManager().getSections().values()) {
-            for (ShopItem item : section.getItems()) {
-                if (!item.isDynamicPricing())
-                    continue;
-
-                // 현재 재고량과 목표 재고량(maxStock)의 차이를 복구
-                long currentStock = item.getCurrentStock();
-                long targetStock = item.getMaxStock();
-
-                if (currentStock == targetStock)
-                    continue;
-
-                // 재고를 목표치로 서서히 복구
-                // Stock이 높을수록 가격이 낮아지므로, 재고를 복구하면 가격도 복구됨
-                long stockDifference = targetStock - currentStock;
-                long adjustment = (long) Math.ceil(Math.abs(stockDifference) * restorationRate);
-
-                if (adjustment == 0)
-                    adjustment = 1; // 최소 1단위 변경
-
-                long newStock;
-                if (stockDifference > 0) {
-                    // 재고가 부족한 경우 → 재고 증가
-                    newStock = Math.min(targetStock, currentStock + adjustment);
-                } else {
-                    // 재고가 과잉인 경우 → 재고 감소
-                    newStock = Math.max(targetStock, currentStock - adjustment);
+        if (rescanRequested) {
+            rescanRequested = false;
+            rescan(now);
+        }
+
+        // 1. 새로 등록된 아이템을 스케줄에 추가
+        ShopItem tracked;
+        while ((tracked = inbox.poll()) != null) {
+            schedule(tracked, now + intervalMillis);
+        }
+
+        // 2. 조정 시각이 된 아이템만 꺼냄
+        List<ShopItem> dueItems = new ArrayList<>();
+        while (!schedule.isEmpty() && schedule.peek().dueAt() <= now) {
+            ShopItem item = schedule.poll().item();
+            scheduled.remove(item);
+            if (item.isDynamicPricing()) {
+                dueItems.add(item);
+            }
+        }
+
+        int size = dueItems.size();
+        if (size == 0)
+            return;
+
+        // 3. 재고를 기본형 배열로 복사한 뒤 분기 없이 한 번에 조정값 계산
+        long[] stocks = new long[size];
+        long[] targets = new long[size];
+        for (int i = 0; i < size; i++) {
+            ShopItem item = dueItems.get(i);
+            stocks[i] = item.getCurrentStock();
+            targets[i] = item.getMaxStock();
+        }
+        long[] restored = computeRestoredStocks(stocks, targets, restorationRate);
+
+        // 4. 계산 시점 이후 거래로 재고가 바뀐 아이템은 이번 주기에서 건너뜀 (다음 주기에 다시 계산)
+        Map<String, Long> changed = new HashMap<>();
+        long nextDue = now + intervalMillis;
+        for (int i = 0; i < size; i++) {
+            ShopItem item = dueItems.get(i);
+            if (item.compareAndSetStock(stocks[i], restored[i])) {
+                if (restored[i] != stocks[i]) {
+                    changed.put(item.getId(), restored[i]);
+                }
+                if (restored[i] == targets[i]) {
+                    continue; // 목표치 도달 → 스케줄에서 제외
                 }
+            }
+            schedule(item, nextDue);
+        }
 
-                item.setCurrentStock(newStock);
+        // 5. 변경된 재고를 한 번에 저장
+        plugin.getDatabaseManager().queueDynamicPrices(changed);
 
-                // 데이터베이스에 저장
-                plugin.getDatabaseManager().saveDynamicPrice(item.getId(), newStock);
+        if (!changed.isEmpty()) {
+            plugin.getLogger().fine("동적 가격 복구 작업 완료: " + changed.size() + "개 아이템 조정됨 (대기 "
+                    + scheduled.size() + "개)");
+        }
+    }
 
-                updatedCount++;
+    /**
+     * 스케줄을 비우고 재고가 목표치에서 벗어난 모든 아이템을 다시 등록합니다.
+     */
+    private void rescan(long now) {
+        schedule.clear();
+        scheduled.clear();
+        inbox.clear();
+
+        for (ShopSection section : plugin.getShopManager().getSections().values()) {
+            for (ShopItem item : section.getItems()) {
+                if (item.isDynamicPricing() && item.getCurrentStock() != item.getMaxStock()) {
+                    schedule(item, now + intervalMillis);
+                }
             }
         }
+    }
+
+    private void schedule(ShopItem item, long dueAt) {
+        if (scheduled.add(item)) {
+            schedule.add(new Scheduled(item, dueAt));
+        }
+    }
 
-        if (updatedCount > 0) {
-            plugin.getLogger().fine("동적 가격 복구 작업 완료: " + updatedCount + "개 아이템 조정됨");
+    /**
+     * 재고를 목표치로 서서히 복구한 결과를 계산합니다.
+     * Stock이 높을수록 가격이 낮아지므로, 재고를 복구하면 가격도 복구됩니다.
+     * 변화량은 차이의 restorationRate 비율(올림, 최소 1)이며 목표치를 넘지 않습니다.
+     */
+    static long[] computeRestoredStocks(long[] stocks, long[] targets, double restorationRate) {
+        long[] result = new long[stocks.length];
+        for (int i = 0; i < stocks.length; i++) {
+            long difference = targets[i] - stocks[i];
+            long distance = Math.abs(difference);
+            long step = Math.max(1L, (long) Math.ceil(distance * restorationRate));
+            // 차이보다 크게 움직이지 않도록 제한하고 부호를 적용 (차이가 0이면 변화 없음)
+            result[i] = stocks[i] + Long.signum(difference) * Math.min(step, distance);
         }
+        return result;
     }
 
     /**
      * 스케줄러를 시작합니다.
-     * 
+     * 각 아이템은 재고가 바뀐 뒤 주기만큼 지나면 조정되며, 조정 시각은 1초 간격으로 확인합니다.
+     *
      * @param intervalMinutes 실행 주기 (분 단위)
      */
     public void start(int intervalMinutes) {
-        long intervalTicks = intervalMinutes * 60L * 20L; // 분 → 틱 (1초 = 20틱)
-        this.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+        this.intervalMillis = intervalMinutes * 60_000L;
+        this.runTaskTimerAsynchronously(plugin, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        ShopItem.setStockSettingsListener(this::track);
         plugin.getLogger()
                 .info("동적 가격 복구 스케줄러 시작됨 (주기: " + intervalMinutes + "분, 복구율: " + (int) (restorationRate * 100) + "%)");
     }
+
+    /**
+     * 스케줄러를 중지하고 아이템 변경 리스너를 해제합니다.
+     */
+    public void stop() {
+        ShopItem.setStockSettingsListener(null);
+        cancel();
+    }
+
+    /**
+     * 스케줄에 등록된 아이템과 다음 조정 시각
+     */
+    private record Scheduled(ShopItem item, long dueAt) {
+    }
 }
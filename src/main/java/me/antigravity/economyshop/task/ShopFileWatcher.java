@@ -0,0 +1,197 @@
+package me.antigravity.economyshop.task;
+
+import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.model.ShopSection;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * shops 폴더와 sections.yml을 감시하여 바뀐 파일만 다시 읽는 핫 리로드 태스크입니다. (config.yml의 hot-reload)
+ *
+ * <p>
+ * 감시 스레드는 변경된 파일과 마지막 변경 시각만 기록하고, 메인 스레드 태스크가 일정 시간(debounce) 동안
+ * 추가 변경이 없는 파일을 처리합니다. 편집기가 저장 중에 여러 번 쓰더라도 한 번만 다시 읽으며,
+ * 플러그인이 직접 저장한 내용과 같은 파일은 무시합니다.
+ * </p>
+ */
+public class ShopFileWatcher extends BukkitRunnable {
+
+    // 대기 중인 변경을 확인하는 주기 (0.5초)
+    private static final long CHECK_PERIOD_TICKS = 10L;
+    private static final String SECTIONS_FILE = "sections.yml";
+
+    private final EconomyShop plugin;
+    private final Path dataFolder;
+    private final Path shopsFolder;
+    private final long debounceMillis;
+
+    // 변경된 파일 -> 마지막 변경 시각 (감시 스레드가 기록, 메인 스레드가 처리)
+    private final Map<Path, Long> pending = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public ShopFileWatcher(EconomyShop plugin, long debounceMillis) {
+        this.plugin = plugin;
+        this.dataFolder = plugin.getDataFolder().toPath().toAbsolutePath();
+        this.shopsFolder = dataFolder.resolve("shops");
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * 파일 감시를 시작합니다.
+     *
+     * @return 시작 여부 (감시 서비스를 만들 수 없으면 false)
+     */
+    public boolean start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dataFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            shopsFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("상점 파일 감시를 시작할 수 없습니다: " + e.getMessage());
+            stop();
+            return false;
+        }
+
+        watchThread = new Thread(this::watchLoop, "EconomyShop-FileWatcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        this.runTaskTimer(plugin, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        plugin.getLogger().info("상점 파일 핫 리로드가 활성화되었습니다. (대기 시간: " + debounceMillis + "ms)");
+        return true;
+    }
+
+    /**
+     * 파일 감시를 중지합니다.
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close(); // 감시 스레드의 take()가 예외로 종료됨
+            } catch (IOException ignored) {
+            }
+        }
+        try {
+            cancel();
+        } catch (IllegalStateException ignored) {
+            // 아직 스케줄되지 않음
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path folder = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // 이벤트 유실: 다음 처리 때 sections.yml부터 전체 섹션을 다시 확인
+                        pending.put(dataFolder.resolve(SECTIONS_FILE), System.currentTimeMillis());
+                        continue;
+                    }
+
+                    Path changed = folder.resolve((Path) event.context());
+                    if (isWatched(changed)) {
+                        pending.put(changed, System.currentTimeMillis());
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // 종료
+        }
+    }
+
+    private boolean isWatched(Path path) {
+        String name = path.getFileName().toString();
+        if (path.getParent().equals(dataFolder)) {
+            return name.equals(SECTIONS_FILE);
+        }
+        return path.getParent().equals(shopsFolder) && name.endsWith(".yml");
+    }
+
+    @Override
+    public void run() {
+        if (pending.isEmpty())
+            return;
+
+        long now = System.currentTimeMillis();
+        Path sectionsPath = dataFolder.resolve(SECTIONS_FILE);
+        List<Path> ready = new ArrayList<>();
+        for (Map.Entry<Path, Long> entry : pending.entrySet()) {
+            // 마지막 변경 후 대기 시간이 지난 파일만 처리 (그 사이 새 변경이 기록되면 remove 실패)
+            if (now - entry.getValue() >= debounceMillis && pending.remove(entry.getKey(), entry.getValue())) {
+                ready.add(entry.getKey());
+            }
+        }
+        if (ready.isEmpty())
+            return;
+
+        // 섹션 목록을 먼저 반영한 뒤 각 상점 파일 처리
+        if (ready.remove(sectionsPath)) {
+            reloadSections(sectionsPath.toFile());
+        }
+        for (Path path : ready) {
+            reloadShopFile(path.toFile());
+        }
+    }
+
+    private void reloadSections(File file) {
+        if (plugin.getShopManager().isOwnWrite(file))
+            return;
+
+        Collection<ShopSection> before = new ArrayList<>(plugin.getShopManager().getSections().values());
+        try {
+            plugin.getShopManager().reloadSections();
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("sections.yml 핫 리로드 실패: " + e.getMessage());
+            return;
+        }
+
+        Map<String, ShopSection> after = plugin.getShopManager().getSections();
+        for (ShopSection section : before) {
+            boolean removed = after.get(section.getId()) != section;
+            plugin.getGuiManager().refreshOpenViews(section, removed);
+        }
+        plugin.getGuiManager().refreshOpenMainMenus();
+    }
+
+    private void reloadShopFile(File file) {
+        String fileName = file.getName();
+        String sectionId = fileName.substring(0, fileName.length() - ".yml".length());
+        ShopSection section = plugin.getShopManager().getSections().get(sectionId);
+        if (section == null || plugin.getShopManager().isOwnWrite(file))
+            return; // sections.yml에 없는 파일이거나 플러그인이 저장한 내용
+
+        try {
+            long startTime = System.nanoTime();
+            int changed = plugin.getShopManager().reloadSectionFile(section);
+            plugin.getLogger().info("상점 파일 변경 반영: " + fileName + " (변경된 아이템 " + changed + "개, "
+                    + (System.nanoTime() - startTime) / 1_000_000L + "ms)");
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("상점 파일 핫 리로드 실패 (" + fileName + "): " + e.getMessage());
+            return;
+        }
+        plugin.getGuiManager().refreshOpenViews(section, false);
+    }
+}
@@ -0,0 +1,72 @@
+package me.antigravity.economyshop.transaction;
+
+import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.api.event.ShopPostTransactionEvent;
+import me.antigravity.economyshop.api.event.ShopPreTransactionEvent;
+import me.antigravity.economyshop.economy.EconomyProvider;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 여러 아이템을 한 번에 판매할 때(/sellall, 판매 GUI) 경제 시스템별로 묶어 한 번에 정산합니다.
+ * 경제 시스템마다 입금 1회, 재고 저장 1회, 로그 1건, ShopPostTransactionEvent 1회만 발생합니다.
+ */
+public final class SellSettlement {
+
+    private SellSettlement() {
+    }
+
+    /**
+     * 판매 줄을 아이템에 지정된 경제 시스템별로 묶습니다.
+     *
+     * @param unavailable 사용 가능한 경제 시스템이 없는 줄이 담길 목록
+     * @return 경제 시스템 -> 판매 줄 (입력 순서 유지)
+     */
+    public static Map<EconomyProvider, List<TransactionLine>> groupByEconomy(EconomyShop plugin,
+            List<TransactionLine> lines, List<TransactionLine> unavailable) {
+        Map<EconomyProvider, List<TransactionLine>> groups = new LinkedHashMap<>();
+        for (TransactionLine line : lines) {
+            EconomyProvider economy = plugin.getEconomyManager().getProvider(line.section(), line.item());
+            if (economy == null || !economy.isAvailable()) {
+                unavailable.add(line);
+                continue;
+            }
+            groups.computeIfAbsent(economy, k -> new ArrayList<>()).add(line);
+        }
+        return groups;
+    }
+
+    /**
+     * 하나의 경제 시스템에 대한 판매를 정산합니다.
+     * 아이템 회수 → 재고 반영 → 입금 순서로 처리하며, 실패 시 회수한 아이템은 플레이어에게 돌아갑니다.
+     *
+     * @param source   아이템을 회수할 인벤토리
+     * @param logType  거래 로그에 기록할 유형 (예: SELLALL)
+     * @param onCommit 정산 성공 시 메인 스레드에서 실행할 작업 (메시지 등)
+     * @return 정산 성공 여부
+     */
+    public static boolean settle(EconomyShop plugin, Player player, EconomyProvider economy,
+            List<TransactionLine> lines, Inventory source, String logType, Consumer<TransactionContext> onCommit) {
+        TransactionContext context = new TransactionContext(player, economy,
+                ShopPreTransactionEvent.TransactionType.SELL, lines);
+
+        return new TransactionPipeline(plugin)
+                .then(TransactionStages.takeItems(plugin, source))
+                .then(TransactionStages.reserveStock(plugin))
+                .then(TransactionStages.deposit(plugin))
+                .onCommit(onCommit)
+                .onCommit(ctx -> Bukkit.getPluginManager().callEvent(new ShopPostTransactionEvent(player,
+                        ctx.getType(), ctx.getLines().stream().map(TransactionLine::toEventLine).toList(),
+                        ctx.getTotalPrice())))
+                .async(ctx -> plugin.getLogManager().logTransaction(player.getName(), logType, "BULK",
+                        ctx.getTotalAmount(), ctx.getTotalPrice()))
+                .execute(context);
+    }
+}
@@ -0,0 +1,40 @@
+package me.antigravity.economyshop.transaction;
+
+import lombok.Getter;
+import me.antigravity.economyshop.api.event.ShopPreTransactionEvent;
+import me.antigravity.economyshop.economy.EconomyProvider;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * 하나의 거래(구매/판매/일괄 판매)에 대한 정보를 담는 컨텍스트입니다.
+ * 파이프라인의 모든 단계가 같은 컨텍스트를 공유합니다.
+ */
+@Getter
+public class TransactionContext {
+
+    private final Player player;
+    private final EconomyProvider economy;
+    private final ShopPreTransactionEvent.TransactionType type;
+    private final List<TransactionLine> lines;
+    private final double totalPrice;
+    private final int totalAmount;
+
+    public TransactionContext(Player player, EconomyProvider economy, ShopPreTransactionEvent.TransactionType type,
+            List<TransactionLine> lines) {
+        this.player = player;
+        this.economy = economy;
+        this.type = type;
+        this.lines = List.copyOf(lines);
+
+        double price = 0.0;
+        int amount = 0;
+        for (TransactionLine line : this.lines) {
+            price += line.price();
+            amount += line.amount();
+        }
+        this.totalPrice = price;
+        this.totalAmount = amount;
+    }
+}
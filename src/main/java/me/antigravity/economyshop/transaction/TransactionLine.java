@@ -0,0 +1,25 @@
+package me.antigravity.economyshop.transaction;
+
+import me.antigravity.economyshop.api.event.ShopTransactionLine;
+import me.antigravity.economyshop.model.ShopItem;
+import me.antigravity.economyshop.model.ShopSection;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 거래에 포함된 아이템 한 줄입니다.
+ *
+ * @param section 상점 섹션
+ * @param item    거래 대상 아이템
+ * @param amount  거래 수량
+ * @param price   이 줄의 총 금액
+ * @param stack   지급하거나 회수할 실제 아이템 (수량 반영, 이벤트에서 생성된 경우 null일 수 있음)
+ */
+public record TransactionLine(ShopSection section, ShopItem item, int amount, double price, ItemStack stack) {
+
+    /**
+     * 이벤트로 공개할 값으로 변환합니다.
+     */
+    public ShopTransactionLine toEventLine() {
+        return new ShopTransactionLine(section, item, amount, price, stack);
+    }
+}
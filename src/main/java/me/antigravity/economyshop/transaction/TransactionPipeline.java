@@ -0,0 +1,104 @@
+package me.antigravity.economyshop.transaction;
+
+import me.antigravity.economyshop.EconomyShop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 예약 → 결제 → 지급 → 확정 순서로 거래를 처리하는 파이프라인입니다.
+ *
+ * <p>
+ * 단계(stage)는 호출한 스레드(메인 스레드)에서 순서대로 실행되며, 하나라도 실패하면
+ * 이미 실행된 단계를 역순으로 보상(compensate)합니다. 모두 성공하면 각 단계의 commit과
+ * onCommit 작업을 메인 스레드에서 실행하고, 로그/디스코드 같은 I/O 작업은 비동기로 실행합니다.
+ * </p>
+ */
+public class TransactionPipeline {
+
+    private final EconomyShop plugin;
+    private final List<TransactionStage> stages = new ArrayList<>();
+    private final List<Consumer<TransactionContext>> commitActions = new ArrayList<>();
+    private final List<Consumer<TransactionContext>> asyncActions = new ArrayList<>();
+
+    public TransactionPipeline(EconomyShop plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 다음 단계를 추가합니다.
+     */
+    public TransactionPipeline then(TransactionStage stage) {
+        stages.add(stage);
+        return this;
+    }
+
+    /**
+     * 거래가 확정된 후 메인 스레드에서 실행할 작업을 추가합니다. (메시지, Bukkit 이벤트 등)
+     */
+    public TransactionPipeline onCommit(Consumer<TransactionContext> action) {
+        commitActions.add(action);
+        return this;
+    }
+
+    /**
+     * 거래가 확정된 후 비동기로 실행할 작업을 추가합니다. (로그, 외부 전송 등 Bukkit API를 쓰지 않는 작업)
+     */
+    public TransactionPipeline async(Consumer<TransactionContext> action) {
+        asyncActions.add(action);
+        return this;
+    }
+
+    /**
+     * 거래를 실행합니다. 메인 스레드에서 호출해야 합니다.
+     *
+     * @return 거래 성공 여부
+     */
+    public boolean execute(TransactionContext context) {
+        List<TransactionStage> executed = new ArrayList<>(stages.size());
+
+        for (TransactionStage stage : stages) {
+            boolean success;
+            try {
+                success = stage.execute(context);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "거래 처리 중 오류 발생 (" + context.getPlayer().getName() + ")", e);
+                context.getPlayer().sendMessage("§c거래 처리 중 오류가 발생했습니다.");
+                success = false;
+            }
+
+            if (!success) {
+                rollback(context, executed);
+                return false;
+            }
+            executed.add(stage);
+        }
+
+        for (TransactionStage stage : executed) {
+            stage.commit(context);
+        }
+        for (Consumer<TransactionContext> action : commitActions) {
+            action.accept(context);
+        }
+        if (!asyncActions.isEmpty()) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                for (Consumer<TransactionContext> action : asyncActions) {
+                    action.accept(context);
+                }
+            });
+        }
+        return true;
+    }
+
+    private void rollback(TransactionContext context, List<TransactionStage> executed) {
+        for (int i = executed.size() - 1; i >= 0; i--) {
+            try {
+                executed.get(i).compensate(context);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "거래 보상 처리 중 오류 발생 (" + context.getPlayer().getName() + ")", e);
+            }
+        }
+    }
+}
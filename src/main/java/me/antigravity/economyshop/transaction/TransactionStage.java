@@ -0,0 +1,27 @@
+package me.antigravity.economyshop.transaction;
+
+/**
+ * 거래 파이프라인의 한 단계입니다.
+ * 각 단계는 거래마다 새로 생성되므로, 보상(compensate)에 필요한 상태를 필드에 보관해도 됩니다.
+ */
+public interface TransactionStage {
+
+    /**
+     * 단계를 실행합니다. 실패 시 플레이어에게 사유를 안내하고 false를 반환해야 합니다.
+     *
+     * @return 성공 여부
+     */
+    boolean execute(TransactionContext context);
+
+    /**
+     * 이후 단계가 실패했을 때 이 단계에서 변경한 내용을 되돌립니다.
+     */
+    default void compensate(TransactionContext context) {
+    }
+
+    /**
+     * 모든 단계가 성공한 뒤 호출됩니다. 예약해 둔 변경 사항을 확정(저장 예약 등)합니다.
+     */
+    default void commit(TransactionContext context) {
+    }
+}
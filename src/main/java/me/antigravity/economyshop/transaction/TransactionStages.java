@@ -0,0 +1,341 @@
+package me.antigravity.economyshop.transaction;
+
+import me.antigravity.economyshop.EconomyShop;
+import me.antigravity.economyshop.api.event.ShopPreTransactionEvent;
+import me.antigravity.economyshop.manager.GlobalStockManager;
+import me.antigravity.economyshop.manager.LimitManager;
+import me.antigravity.economyshop.model.ShopItem;
+import me.antigravity.economyshop.util.MessageUtils;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 구매/판매에 공통으로 사용되는 거래 단계 모음입니다.
+ * 각 메서드는 거래마다 새로운 단계 인스턴스를 반환합니다.
+ */
+public final class TransactionStages {
+
+    private TransactionStages() {
+    }
+
+    /**
+     * 동적 가격 재고와 글로벌 재고를 예약합니다.
+     * 구매는 재고를 차감하고, 판매는 최대 재고까지 증가시킵니다.
+     */
+    public static TransactionStage reserveStock(EconomyShop plugin) {
+        return new ReserveStockStage(plugin);
+    }
+
+    /**
+     * 플레이어의 일일 구매 제한을 예약합니다. (구매 거래에만 적용)
+     */
+    public static TransactionStage reserveLimit(EconomyShop plugin) {
+        return new ReserveLimitStage(plugin);
+    }
+
+    /**
+     * 거래 총액을 플레이어에게서 출금합니다.
+     */
+    public static TransactionStage withdraw(EconomyShop plugin) {
+        return new WithdrawStage(plugin);
+    }
+
+    /**
+     * 거래 총액을 플레이어에게 입금합니다. 되돌릴 수 없으므로 마지막 단계로 사용해야 합니다.
+     */
+    public static TransactionStage deposit(EconomyShop plugin) {
+        return new DepositStage(plugin);
+    }
+
+    /**
+     * 구매한 아이템을 플레이어 인벤토리에 지급합니다. 공간이 부족하면 바닥에 떨어뜨립니다.
+     */
+    public static TransactionStage deliver(EconomyShop plugin) {
+        return new DeliverStage(plugin);
+    }
+
+    /**
+     * 판매할 아이템을 지정한 인벤토리에서 회수합니다.
+     * 실패 시 회수한 아이템은 플레이어 인벤토리로 돌려줍니다.
+     */
+    public static TransactionStage takeItems(EconomyShop plugin, Inventory source) {
+        return new TakeItemsStage(plugin, source);
+    }
+
+    /**
+     * 플레이어 인벤토리에 아이템을 넣고, 남는 아이템은 발밑에 떨어뜨립니다.
+     *
+     * @return 바닥에 떨어진 아이템이 있는지 여부
+     */
+    static boolean giveOrDrop(Player player, ItemStack stack) {
+        Map<Integer, ItemStack> leftovers = player.getInventory().addItem(stack);
+        for (ItemStack leftover : leftovers.values()) {
+            player.getWorld().dropItem(player.getLocation(), leftover);
+        }
+        return !leftovers.isEmpty();
+    }
+
+    private static final class ReserveStockStage implements TransactionStage {
+        private final EconomyShop plugin;
+        private final List<ShopItem> changedItems = new ArrayList<>();
+        private final List<Long> deltas = new ArrayList<>();
+        private final List<GlobalStockManager.Reservation> globalReservations = new ArrayList<>();
+
+        private ReserveStockStage(EconomyShop plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            boolean buying = context.getType() == ShopPreTransactionEvent.TransactionType.BUY;
+
+            for (TransactionLine line : context.getLines()) {
+                ShopItem item = line.item();
+
+                if (buying && plugin.getGlobalStockManager() != null
+                        && plugin.getGlobalStockManager().getStock(item.getId()) >= 0) {
+                    GlobalStockManager.Reservation reservation = plugin.getGlobalStockManager()
+                            .reserve(item.getId(), line.amount());
+                    if (reservation == null) {
+                        MessageUtils.sendActionBar(context.getPlayer(),
+                                plugin.getLangManager().getMessage("error.out-of-stock"));
+                        compensate(context);
+                        return false;
+                    }
+                    globalReservations.add(reservation);
+                }
+
+                if (!item.isDynamicPricing()) {
+                    continue;
+                }
+
+                int amount = line.amount();
+                long maxStock = item.getMaxStock();
+                LongUnaryOperator update = buying
+                        ? stock -> stock > 0 ? stock - amount : stock
+                        : stock -> stock < maxStock ? Math.min(maxStock, stock + amount) : stock;
+
+                // 비동기 복구 작업과 동시에 변경될 수 있으므로 원자적으로 갱신
+                long before = item.updateStock(update);
+                long after = update.applyAsLong(before);
+
+                if (after != before) {
+                    changedItems.add(item);
+                    deltas.add(after - before);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void compensate(TransactionContext context) {
+            for (int i = changedItems.size() - 1; i >= 0; i--) {
+                changedItems.get(i).addStock(-deltas.get(i));
+            }
+            changedItems.clear();
+            deltas.clear();
+
+            for (GlobalStockManager.Reservation reservation : globalReservations) {
+                reservation.rollback();
+            }
+            globalReservations.clear();
+        }
+
+        @Override
+        public void commit(TransactionContext context) {
+            // 같은 아이템이 여러 줄에 있어도 최종 재고만 한 번 저장
+            Set<ShopItem> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (ShopItem item : changedItems) {
+                if (saved.add(item)) {
+                    plugin.getDatabaseManager().queueDynamicPrice(item.getId(), item.getCurrentStock());
+                    if (plugin.getPriceRestorationTask() != null) {
+                        plugin.getPriceRestorationTask().track(item);
+                    }
+                }
+            }
+            for (GlobalStockManager.Reservation reservation : globalReservations) {
+                reservation.commit();
+            }
+        }
+    }
+
+    private static final class ReserveLimitStage implements TransactionStage {
+        private final EconomyShop plugin;
+        private final List<TransactionLine> reserved = new ArrayList<>();
+
+        private ReserveLimitStage(EconomyShop plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            if (context.getType() != ShopPreTransactionEvent.TransactionType.BUY) {
+                return true;
+            }
+
+            LimitManager limitManager = plugin.getLimitManager();
+            UUID uuid = context.getPlayer().getUniqueId();
+
+            for (TransactionLine line : context.getLines()) {
+                ShopItem item = line.item();
+                if (!limitManager.tryReserve(uuid, item.getId(), line.amount(), item.getPlayerLimit())) {
+                    String msg = !limitManager.isLoaded(uuid)
+                            ? plugin.getLangManager().getMessage("error.limit-loading")
+                            : plugin.getLangManager().getMessage("error.limit-reached")
+                                    .replace("{current}", String.valueOf(limitManager.getCurrentUsage(uuid, item.getId())))
+                                    .replace("{max}", String.valueOf(item.getPlayerLimit()));
+                    MessageUtils.sendActionBar(context.getPlayer(), msg);
+                    compensate(context);
+                    return false;
+                }
+                reserved.add(line);
+            }
+            return true;
+        }
+
+        @Override
+        public void compensate(TransactionContext context) {
+            UUID uuid = context.getPlayer().getUniqueId();
+            for (TransactionLine line : reserved) {
+                plugin.getLimitManager().release(uuid, line.item().getId(), line.amount());
+            }
+            reserved.clear();
+        }
+
+        @Override
+        public void commit(TransactionContext context) {
+            UUID uuid = context.getPlayer().getUniqueId();
+            for (TransactionLine line : reserved) {
+                plugin.getLimitManager().commit(uuid, line.item().getId());
+            }
+        }
+    }
+
+    private static final class WithdrawStage implements TransactionStage {
+        private final EconomyShop plugin;
+
+        private WithdrawStage(EconomyShop plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            Player player = context.getPlayer();
+            double price = context.getTotalPrice();
+
+            if (!context.getEconomy().has(player, price)) {
+                String msg = plugin.getLangManager().getMessage("error.not-enough-money")
+                        .replace("{price}", context.getEconomy().formatAmount(price));
+                MessageUtils.sendActionBar(player, msg);
+                return false;
+            }
+            if (!context.getEconomy().withdraw(player, price)) {
+                player.sendMessage("§c거래 처리 중 오류가 발생했습니다. (출금 실패)");
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void compensate(TransactionContext context) {
+            context.getEconomy().deposit(context.getPlayer(), context.getTotalPrice());
+        }
+    }
+
+    private static final class DepositStage implements TransactionStage {
+        private final EconomyShop plugin;
+
+        private DepositStage(EconomyShop plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            if (context.getEconomy() == null || !context.getEconomy().isAvailable()) {
+                context.getPlayer().sendMessage("§c경제 시스템 오류: 사용 가능한 경제 시스템을 찾을 수 없습니다.");
+                return false;
+            }
+            if (!context.getEconomy().deposit(context.getPlayer(), context.getTotalPrice())) {
+                context.getPlayer().sendMessage("§c거래 처리 중 오류가 발생했습니다.");
+                plugin.getLogger().warning("입금 실패: " + context.getPlayer().getName() + " ("
+                        + context.getTotalPrice() + ")");
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class DeliverStage implements TransactionStage {
+        private final EconomyShop plugin;
+
+        private DeliverStage(EconomyShop plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            boolean dropped = false;
+            for (TransactionLine line : context.getLines()) {
+                dropped |= giveOrDrop(context.getPlayer(), line.stack().clone());
+            }
+            if (dropped) {
+                context.getPlayer().sendMessage(plugin.getLangManager().getMessage("shop.inventory-full-drop"));
+            }
+            return true;
+        }
+    }
+
+    private static final class TakeItemsStage implements TransactionStage {
+        private final EconomyShop plugin;
+        private final Inventory source;
+        private final List<ItemStack> taken = new ArrayList<>();
+
+        private TakeItemsStage(EconomyShop plugin, Inventory source) {
+            this.plugin = plugin;
+            this.source = source;
+        }
+
+        @Override
+        public boolean execute(TransactionContext context) {
+            for (TransactionLine line : context.getLines()) {
+                ItemStack toRemove = line.stack().clone();
+                Map<Integer, ItemStack> missing = source.removeItem(toRemove);
+
+                int missingAmount = 0;
+                for (ItemStack stack : missing.values()) {
+                    missingAmount += stack.getAmount();
+                }
+                if (missingAmount < toRemove.getAmount()) {
+                    ItemStack removed = toRemove.clone();
+                    removed.setAmount(toRemove.getAmount() - missingAmount);
+                    taken.add(removed);
+                }
+
+                if (missingAmount > 0) {
+                    context.getPlayer().sendMessage(plugin.getLangManager().getMessage("shop.sell-fail-no-item"));
+                    compensate(context);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void compensate(TransactionContext context) {
+            for (ItemStack stack : taken) {
+                giveOrDrop(context.getPlayer(), stack);
+            }
+            taken.clear();
+        }
+    }
+}
@@ -1,99 +1,316 @@
 package me.antigravity.economyshop.util;
 
-import com.google.gson.JsonObject;
-
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
 
 /**
  * Discord 웹훅 전송 유틸리티
  * DiscordSRV에 의존하지 않고 직접 웹훅을 전송합니다.
+ *
+ * 웹훅마다 하나의 {@link HttpClient}로 모든 요청을 보내므로 연결(TLS 세션 포함)이 재사용되며,
+ * 페이로드는 JSON 트리 없이 고정된 Embed 형식에 맞춰 문자열로 바로 작성합니다.
+ * 사용이 끝나면 {@link #close()}로 클라이언트의 스레드를 정리해야 합니다. (플러그인 리로드 대비)
  */
 public class DiscordWebhook {
 
-    private final String webhookUrl;
+    /**
+     * 한 번의 웹훅 요청에 담을 수 있는 최대 Embed 수 (Discord 제한)
+     */
+    public static final int MAX_EMBEDS = 10;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger logger;
+    private final URI webhookUri;
 
-    public DiscordWebhook(String webhookUrl) {
-        this.webhookUrl = webhookUrl;
+    // Keep-Alive 연결을 유지하는 클라이언트와 응답 처리 스레드 (close() 시 종료)
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    public DiscordWebhook(String webhookUrl, Logger logger) {
+        this.logger = logger;
+        this.webhookUri = parseUri(webhookUrl, logger);
+        if (webhookUri == null) {
+            this.executor = null;
+            this.client = null;
+            return;
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "EconomyShop-DiscordHttp");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 요청은 한 번에 하나씩 보내므로 HTTP/2 다중화 이점이 없고, HTTP/1.1 Keep-Alive가 요청당 비용이 더 낮음
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
     }
 
     /**
-     * 간단한 메시지를 Discord로 전송합니다.
+     * 웹훅 주소를 검사합니다. http/https 주소가 아니면 전송하지 않습니다.
      */
-    public void sendMessage(String content) {
+    private static URI parseUri(String webhookUrl, Logger logger) {
         if (webhookUrl == null || webhookUrl.isEmpty())
+            return null;
+        try {
+            URI uri = URI.create(webhookUrl.trim());
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if ((!scheme.equals("http") && !scheme.equals("https")) || uri.getHost() == null) {
+                logger.warning("Discord 웹훅 주소가 올바르지 않습니다. (http/https 주소 필요): " + webhookUrl);
+                return null;
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            logger.warning("Discord 웹훅 주소가 올바르지 않습니다: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 주소가 올바르게 설정되어 전송할 수 있는지 여부
+     */
+    public boolean isValid() {
+        return webhookUri != null;
+    }
+
+    /**
+     * HTTP 클라이언트의 스레드를 종료합니다. 이후 요청은 전송되지 않습니다.
+     */
+    public void close() {
+        if (client == null)
             return;
+        // Java 21부터는 HttpClient를 직접 닫을 수 있음 (진행 중인 요청을 마친 뒤 선택자 스레드 종료)
+        if (client instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.fine("Discord HTTP 클라이언트 종료 중 오류: " + e.getMessage());
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * 간단한 메시지를 Discord로 전송합니다. (비동기)
+     */
+    public CompletableFuture<Response> sendMessage(String content) {
+        if (webhookUri == null)
+            return CompletableFuture.completedFuture(Response.SKIPPED);
 
-        JsonObject payload = new JsonObject();
-        payload.addProperty("content", content);
+        StringBuilder json = new StringBuilder(content.length() + 16);
+        json.append("{\"content\":");
+        appendString(json, content);
+        json.append('}');
 
-        sendPayload(payload.toString());
+        return sendPayload(json.toString());
     }
 
     /**
      * Embed 형식의 메시지를 전송합니다.
      */
-    public void sendEmbed(String title, String description, int color, String... fields) {
-        if (webhookUrl == null || webhookUrl.isEmpty())
-            return;
+    public Response sendEmbed(String title, String description, int color, String... fields)
+            throws InterruptedException {
+        return sendEmbeds(List.of(new Embed(title, description, color, Instant.now(), fields)));
+    }
+
+    /**
+     * 여러 Embed를 하나의 요청으로 전송하고 응답을 기다립니다. 최대 {@link #MAX_EMBEDS}개까지 담을 수 있습니다.
+     * 호출한 스레드에서 바로 전송하므로 응답 처리를 다른 스레드로 넘기는 비용이 없습니다. (전송 워커용)
+     *
+     * @throws InterruptedException 응답을 기다리는 중 스레드가 중단된 경우
+     */
+    public Response sendEmbeds(List<Embed> embeds) throws InterruptedException {
+        if (webhookUri == null || embeds.isEmpty())
+            return Response.SKIPPED;
+        if (embeds.size() > MAX_EMBEDS)
+            throw new IllegalArgumentException("Embed는 요청당 최대 " + MAX_EMBEDS + "개까지 전송할 수 있습니다.");
+
+        try {
+            return toResponse(client.send(newRequest(serialize(embeds)), HttpResponse.BodyHandlers.discarding()));
+        } catch (IOException e) {
+            logger.warning("Discord 웹훅 전송 실패: " + e.getMessage());
+            return Response.FAILED;
+        }
+    }
+
+    /**
+     * 여러 Embed를 하나의 요청으로 비동기 전송합니다.
+     */
+    public CompletableFuture<Response> sendEmbedsAsync(List<Embed> embeds) {
+        if (webhookUri == null || embeds.isEmpty())
+            return CompletableFuture.completedFuture(Response.SKIPPED);
+        if (embeds.size() > MAX_EMBEDS)
+            throw new IllegalArgumentException("Embed는 요청당 최대 " + MAX_EMBEDS + "개까지 전송할 수 있습니다.");
 
-        JsonObject embed = new JsonObject();
-        embed.addProperty("title", title);
-        embed.addProperty("description", description);
-        embed.addProperty("color", color);
-        embed.addProperty("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        return sendPayload(serialize(embeds));
+    }
+
+    /**
+     * Embed 목록을 웹훅 페이로드 JSON으로 작성합니다.
+     */
+    static String serialize(List<Embed> embeds) {
+        StringBuilder json = new StringBuilder(256 * embeds.size());
+        json.append("{\"embeds\":[");
+        for (int i = 0; i < embeds.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            appendEmbed(json, embeds.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendEmbed(StringBuilder json, Embed embed) {
+        json.append("{\"title\":");
+        appendString(json, embed.title());
+        json.append(",\"description\":");
+        appendString(json, embed.description());
+        json.append(",\"color\":").append(embed.color());
+        json.append(",\"timestamp\":\"").append(embed.timestamp()).append('"');
 
         // 필드 추가 (이름:값 쌍)
+        String[] fields = embed.fields();
         if (fields.length > 0 && fields.length % 2 == 0) {
-            com.google.gson.JsonArray fieldsArray = new com.google.gson.JsonArray();
+            json.append(",\"fields\":[");
             for (int i = 0; i < fields.length; i += 2) {
-                JsonObject field = new JsonObject();
-                field.addProperty("name", fields[i]);
-                field.addProperty("value", fields[i + 1]);
-                field.addProperty("inline", true);
-                fieldsArray.add(field);
+                if (i > 0)
+                    json.append(',');
+                json.append("{\"name\":");
+                appendString(json, fields[i]);
+                json.append(",\"value\":");
+                appendString(json, fields[i + 1]);
+                json.append(",\"inline\":true}");
             }
-            embed.add("fields", fieldsArray);
+            json.append(']');
         }
+        json.append('}');
+    }
+
+    /**
+     * JSON 문자열 리터럴로 이스케이프하여 추가합니다.
+     */
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * JSON 페이로드를 웹훅으로 비동기 전송하고 응답 코드와 Rate Limit 헤더를 반환합니다.
+     */
+    private CompletableFuture<Response> sendPayload(String jsonPayload) {
+        return client.sendAsync(newRequest(jsonPayload), HttpResponse.BodyHandlers.discarding())
+                .thenApply(this::toResponse)
+                .exceptionally(e -> {
+                    logger.warning("Discord 웹훅 전송 실패: " + e.getMessage());
+                    return Response.FAILED;
+                });
+    }
+
+    private HttpRequest newRequest(String jsonPayload) {
+        return HttpRequest.newBuilder(webhookUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("User-Agent", "EconomyShop-Webhook")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
+                .build();
+    }
 
-        com.google.gson.JsonArray embeds = new com.google.gson.JsonArray();
-        embeds.add(embed);
+    private Response toResponse(HttpResponse<?> httpResponse) {
+        HttpHeaders headers = httpResponse.headers();
+        Response response = new Response(httpResponse.statusCode(),
+                parseInt(headers.firstValue("X-RateLimit-Remaining").orElse(null), -1),
+                parseSeconds(headers.firstValue("X-RateLimit-Reset-After").orElse(null)),
+                parseSeconds(headers.firstValue("Retry-After").orElse(null)));
 
-        JsonObject payload = new JsonObject();
-        payload.add("embeds", embeds);
+        if (!response.isSuccess() && !response.isRateLimited()) {
+            logger.warning("Discord 웹훅 전송 실패 (응답 코드: " + response.status() + ")");
+        }
+        return response;
+    }
 
-        sendPayload(payload.toString());
+    private static int parseInt(String value, int fallback) {
+        if (value == null)
+            return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
     }
 
     /**
-     * JSON 페이로드를 웹훅으로 전송합니다.
+     * 초 단위(소수 가능) 헤더 값을 밀리초로 변환합니다. 없으면 0입니다.
      */
-    private void sendPayload(String jsonPayload) {
+    private static long parseSeconds(String value) {
+        if (value == null)
+            return 0;
         try {
-            URL url = new URL(webhookUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("User-Agent", "EconomyShop-Webhook");
-            connection.setDoOutput(true);
-
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
-            }
+            return (long) Math.ceil(Double.parseDouble(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 
-            int responseCode = connection.getResponseCode();
-            if (responseCode < 200 || responseCode >= 300) {
-                System.err.println("Discord webhook failed with response code: " + responseCode);
-            }
+    /**
+     * 전송할 Embed 하나의 내용
+     *
+     * @param fields 이름:값 쌍으로 나열한 필드
+     */
+    public record Embed(String title, String description, int color, Instant timestamp, String... fields) {
+    }
+
+    /**
+     * 웹훅 응답 결과
+     *
+     * @param status       HTTP 응답 코드 (전송하지 않았으면 0, 연결 실패는 -1)
+     * @param remaining    현재 버킷에 남은 요청 수 (헤더가 없으면 -1)
+     * @param resetAfterMs 버킷이 초기화될 때까지 남은 시간 (밀리초)
+     * @param retryAfterMs 429 응답 시 재시도까지 기다려야 하는 시간 (밀리초)
+     */
+    public record Response(int status, int remaining, long resetAfterMs, long retryAfterMs) {
+        static final Response SKIPPED = new Response(0, -1, 0, 0);
+        static final Response FAILED = new Response(-1, -1, 0, 0);
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
 
-            connection.disconnect();
-        } catch (Exception e) {
-            System.err.println("Failed to send Discord webhook: " + e.getMessage());
+        public boolean isRateLimited() {
+            return status == 429;
         }
     }
 }
@@ -10,7 +10,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
-import java.io.IOException;
 
 /**
  * ItemStack을 YAML 형식으로 직렬화하고 역직렬화하는 유틸리티 클래스입니다.
@@ -30,20 +29,19 @@ public class ItemSerializer {
         File shopFile = new File(plugin.getDataFolder(), "shops/" + section.getId() + ".yml");
 
         try {
-            // 디렉토리 생성
-            if (!shopFile.getParentFile().exists()) {
-                shopFile.getParentFile().mkdirs();
+            // 이미 읽어 둔 섹션 설정을 사용 (없으면 새 파일)
+            if (section.getFile() == null) {
+                section.setFile(shopFile);
+                section.setFileName(shopFile.getName());
             }
-
-            // 파일 생성 (없는 경우)
-            if (!shopFile.exists()) {
-                shopFile.createNewFile();
+            FileConfiguration loaded = section.getConfig();
+            FileConfiguration config = loaded != null ? loaded : new YamlConfiguration();
+            if (loaded == null) {
+                section.setConfig(config);
             }
 
-            FileConfiguration config = YamlConfiguration.loadConfiguration(shopFile);
-
-            // 아이템 데이터 저장
-            String path = item.getId();
+            // 아이템 데이터 저장 (파일에 items 섹션이 있으면 그 아래에 저장)
+            String path = config.isConfigurationSection("items") ? "items." + item.getId() : item.getId();
             // Material 저장 (Custom Item 지원)
             String material = item.getItemStack().getType().name();
 
@@ -72,6 +70,12 @@ public class ItemSerializer {
             config.set(path + ".min-price", item.getMinPrice());
             config.set(path + ".max-price", item.getMaxPrice());
 
+            // 가격 곡선 (기본값인 선형 곡선은 저장하지 않음)
+            if (item.getPricingModel() != null && !"linear".equals(item.getPricingModel().getName())) {
+                config.set(path + ".pricing-model", item.getPricingModel().getName());
+                config.set(path + ".pricing-steepness", item.getPricingModel().getSteepness());
+            }
+
             // 플레이어 제한
             if (item.getPlayerLimit() > 0) {
                 config.set(path + ".player-limit", item.getPlayerLimit());
@@ -115,10 +119,10 @@ public class ItemSerializer {
                 }
             }
 
-            config.save(shopFile);
+            plugin.getShopManager().saveSectionFile(section);
             return true;
 
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             plugin.getLogger().severe("아이템 저장 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -137,35 +141,29 @@ public class ItemSerializer {
      */
     public static boolean createSection(EconomyShop plugin, String sectionId, String displayName,
             Material iconMaterial, int slot) {
-        File sectionsFile = new File(plugin.getDataFolder(), "sections.yml");
-
         try {
-            FileConfiguration config = YamlConfiguration.loadConfiguration(sectionsFile);
-
-            // 섹션 데이터 추가
+            // 메모리의 sections.yml에 섹션 데이터 추가 (이후 상점 로드가 바로 반영하도록)
+            FileConfiguration config = plugin.getConfigManager().getSectionsConfig();
             config.set(sectionId + ".display-name", displayName);
             config.set(sectionId + ".material", iconMaterial.name());
             config.set(sectionId + ".slot", slot);
             config.set(sectionId + ".permission", "economyshop.shop." + sectionId);
             config.set(sectionId + ".economy", "Vault");
 
-            config.save(sectionsFile);
+            plugin.getConfigManager().saveSectionsConfig();
 
-            // 빈 상점 파일 생성
+            // 빈 상점 파일 생성 (저장 큐를 통해 원자적으로 기록)
             File shopFile = new File(plugin.getDataFolder(), "shops/" + sectionId + ".yml");
             if (!shopFile.exists()) {
-                shopFile.getParentFile().mkdirs();
-                shopFile.createNewFile();
-
                 // 주석 추가
-                FileConfiguration shopConfig = YamlConfiguration.loadConfiguration(shopFile);
+                FileConfiguration shopConfig = new YamlConfiguration();
                 shopConfig.options().header("# " + displayName + " 상점 아이템 설정\n");
-                shopConfig.save(shopFile);
+                plugin.getShopManager().getFileWriter().save(shopFile, shopConfig);
             }
 
             return true;
 
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             plugin.getLogger().severe("섹션 생성 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
             return false;